@@ -0,0 +1,178 @@
+package top.focess.util.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Generates a serializer with direct field access for every class marked with {@code top.focess.util.serialize.GenerateSerializer}.
+ * <p>
+ * The generated class lives in the same package as the serialized class, so the serialized fields and the no-arg constructor must not be private.
+ * @deprecated FocessUtil is no longer maintained. Do not use.
+ */
+@Deprecated(forRemoval = true, since = "1.1.25")
+@SupportedAnnotationTypes(SerializerProcessor.ANNOTATION)
+public class SerializerProcessor extends AbstractProcessor {
+
+    static final String ANNOTATION = "top.focess.util.serialize.GenerateSerializer";
+
+    private static final String SERIALIZABLE = "top.focess.util.serialize.FocessSerializable";
+
+    private static final String SUFFIX = "$$FocessSerializer";
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnv) {
+        for (final TypeElement annotation : annotations)
+            for (final Element element : roundEnv.getElementsAnnotatedWith(annotation))
+                if (this.check(element))
+                    this.generate((TypeElement) element);
+        return true;
+    }
+
+    private boolean check(final Element element) {
+        if (element.getKind() != ElementKind.CLASS)
+            return this.error(element, "@GenerateSerializer can only be used on classes");
+        final TypeElement type = (TypeElement) element;
+        final TypeElement serializable = this.processingEnv.getElementUtils().getTypeElement(SERIALIZABLE);
+        if (serializable == null || !this.processingEnv.getTypeUtils().isAssignable(type.asType(), serializable.asType()))
+            return this.error(element, "@GenerateSerializer class must implement FocessSerializable");
+        if (type.getModifiers().contains(Modifier.ABSTRACT))
+            return this.error(element, "@GenerateSerializer class must not be abstract");
+        if (!type.getTypeParameters().isEmpty())
+            return this.error(element, "@GenerateSerializer class must not be generic");
+        if (type.getNestingKind().isNested() && !type.getModifiers().contains(Modifier.STATIC))
+            return this.error(element, "@GenerateSerializer class must not be an inner class");
+        for (Element e = type; e.getKind() != ElementKind.PACKAGE; e = e.getEnclosingElement())
+            if (e.getModifiers().contains(Modifier.PRIVATE))
+                return this.error(element, "@GenerateSerializer class must not be private");
+        final boolean constructor = ElementFilter.constructorsIn(type.getEnclosedElements()).stream()
+                .anyMatch(c -> c.getParameters().isEmpty() && !c.getModifiers().contains(Modifier.PRIVATE));
+        if (!constructor)
+            return this.error(element, "@GenerateSerializer class must have a non-private no-arg constructor");
+        boolean valid = true;
+        for (final VariableElement field : fields(type))
+            if (field.getModifiers().contains(Modifier.PRIVATE) || field.getModifiers().contains(Modifier.FINAL))
+                valid = this.error(field, "Serialized field of @GenerateSerializer class must not be private or final");
+        return valid;
+    }
+
+    private boolean error(final Element element, final String message) {
+        this.processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+        return false;
+    }
+
+    /**
+     * Get the serialized fields in declaration order, the same as the fields serialized by reflection
+     */
+    private static List<VariableElement> fields(final TypeElement type) {
+        return ElementFilter.fieldsIn(type.getEnclosedElements()).stream()
+                .filter(f -> !f.getModifiers().contains(Modifier.STATIC) && !f.getModifiers().contains(Modifier.TRANSIENT))
+                .collect(Collectors.toList());
+    }
+
+    private void generate(final TypeElement type) {
+        final PackageElement packageElement = this.processingEnv.getElementUtils().getPackageOf(type);
+        final String packageName = packageElement.getQualifiedName().toString();
+        final String binaryName = this.processingEnv.getElementUtils().getBinaryName(type).toString();
+        final String simpleName = (packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1)) + SUFFIX;
+        final String typeName = type.getQualifiedName().toString();
+        final List<VariableElement> fields = fields(type);
+        try (final PrintWriter out = new PrintWriter(this.processingEnv.getFiler().createSourceFile((packageName.isEmpty() ? "" : packageName + ".") + simpleName, type).openWriter())) {
+            if (!packageName.isEmpty())
+                out.println("package " + packageName + ";");
+            out.println();
+            out.println("@SuppressWarnings({\"unchecked\", \"rawtypes\", \"deprecation\", \"removal\"})");
+            out.println("public final class " + simpleName + " implements top.focess.util.serialize.GeneratedSerializer<" + typeName + "> {");
+            out.println();
+            out.println("    @Override");
+            out.println("    public int size() {");
+            out.println("        return " + fields.size() + ";");
+            out.println("    }");
+            out.println();
+            out.println("    @Override");
+            out.println("    public void write(final " + typeName + " o, final top.focess.util.serialize.FocessWriter writer) {");
+            for (final VariableElement field : fields)
+                out.println("        writer." + writeMethod(field.asType()) + "(o." + field.getSimpleName() + ");");
+            out.println("    }");
+            out.println();
+            out.println("    @Override");
+            out.println("    public " + typeName + " read(final top.focess.util.serialize.FocessReader reader) {");
+            out.println("        final " + typeName + " o = new " + typeName + "();");
+            for (final VariableElement field : fields)
+                out.println("        o." + field.getSimpleName() + " = " + this.readExpression(field.asType()) + ";");
+            out.println("        return o;");
+            out.println("    }");
+            out.println("}");
+        } catch (final IOException e) {
+            this.error(type, "Failed to generate serializer: " + e.getMessage());
+        }
+    }
+
+    private static String writeMethod(final TypeMirror type) {
+        switch (type.getKind()) {
+            case BYTE:
+                return "writeByte";
+            case SHORT:
+                return "writeShort";
+            case INT:
+                return "writeInt";
+            case LONG:
+                return "writeLong";
+            case FLOAT:
+                return "writeFloat";
+            case DOUBLE:
+                return "writeDouble";
+            case BOOLEAN:
+                return "writeBoolean";
+            case CHAR:
+                return "writeChar";
+            default:
+                return "writeObject";
+        }
+    }
+
+    private String readExpression(final TypeMirror type) {
+        switch (type.getKind()) {
+            case BYTE:
+                return "reader.readByte()";
+            case SHORT:
+                return "reader.readShort()";
+            case INT:
+                return "reader.readInt()";
+            case LONG:
+                return "reader.readLong()";
+            case FLOAT:
+                return "reader.readFloat()";
+            case DOUBLE:
+                return "reader.readDouble()";
+            case BOOLEAN:
+                return "reader.readBoolean()";
+            case CHAR:
+                return "reader.readChar()";
+            default:
+                final TypeMirror erasure = this.processingEnv.getTypeUtils().erasure(type);
+                return erasure.getKind() == TypeKind.TYPEVAR ? "reader.readObject()" : "(" + erasure + ") reader.readObject()";
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package top.focess.util.serialize;
+
+import java.io.IOException;
+
+/**
+ * Represents a codec compressing the blocks of {@link BlockCompressedOutputStream} and {@link BlockCompressedInputStream}.
+ * <p>
+ * A codec must be thread-safe, because the blocks may be decompressed in parallel.
+ * @deprecated FocessUtil is no longer maintained. Do not use.
+ */
+@Deprecated(forRemoval = true, since = "1.1.25")
+public interface BlockCodec {
+
+    /**
+     * Get the id of this codec, which is recorded in the stream header
+     * @return the id of this codec
+     */
+    byte getId();
+
+    /**
+     * Compress the bytes
+     * @param bytes the bytes
+     * @param offset the start offset in the bytes
+     * @param length the number of bytes to compress
+     * @return the compressed bytes
+     */
+    byte[] compress(byte[] bytes, int offset, int length);
+
+    /**
+     * Decompress the bytes into the target, which has exactly the length of the decompressed bytes
+     * @param bytes the compressed bytes
+     * @param offset the start offset in the compressed bytes
+     * @param length the number of compressed bytes
+     * @param target the target of the decompressed bytes
+     * @throws IOException if the compressed bytes are not correct
+     */
+    void decompress(byte[] bytes, int offset, int length, byte[] target) throws IOException;
+}
@@ -0,0 +1,192 @@
+package top.focess.util.serialize;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.zip.CRC32;
+import java.util.zip.ZipException;
+
+/**
+ * An input stream reading the blocks written by {@link BlockCompressedOutputStream}.
+ * <p>
+ * With an executor, the next blocks are read ahead and decompressed in parallel, while the bytes are still returned in order.
+ * It is used below a {@link StreamingFocessReader}, for example {@code new StreamingFocessReader(new BlockCompressedInputStream(inputStream))}.
+ * @deprecated FocessUtil is no longer maintained. Do not use.
+ */
+@Deprecated(forRemoval = true, since = "1.1.25")
+public class BlockCompressedInputStream extends InputStream {
+
+    private static final byte[] EMPTY = new byte[0];
+
+    private final InputStream inputStream;
+
+    private final BlockCodec codec;
+
+    private final Executor executor;
+
+    private final int readAhead;
+
+    private final byte[] header = new byte[BlockCompressedOutputStream.HEADER_SIZE];
+
+    private final Deque<CompletableFuture<byte[]>> blocks = new ArrayDeque<>();
+
+    private byte[] block = EMPTY;
+
+    private int pointer;
+
+    private boolean started;
+
+    private boolean end;
+
+    public BlockCompressedInputStream(final InputStream inputStream) {
+        this(inputStream, new DeflateBlockCodec());
+    }
+
+    public BlockCompressedInputStream(final InputStream inputStream, final BlockCodec codec) {
+        this(inputStream, codec, Runnable::run, 1);
+    }
+
+    /**
+     * Create a block compressed input stream decompressing the blocks in parallel
+     * @param inputStream the source input stream
+     * @param codec the codec decompressing the blocks
+     * @param executor the executor decompressing the blocks
+     * @param readAhead the maximum number of blocks read ahead
+     */
+    public BlockCompressedInputStream(final InputStream inputStream, final BlockCodec codec, final Executor executor, final int readAhead) {
+        if (readAhead <= 0)
+            throw new IllegalArgumentException("Read ahead must be positive");
+        this.inputStream = inputStream;
+        this.codec = codec;
+        this.executor = executor;
+        this.readAhead = readAhead;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!this.next())
+            return -1;
+        return this.block[this.pointer++] & 0xFF;
+    }
+
+    @Override
+    public int read(final byte[] bytes, final int offset, final int length) throws IOException {
+        if (offset < 0 || length < 0 || offset > bytes.length - length)
+            throw new IndexOutOfBoundsException();
+        if (length == 0)
+            return 0;
+        if (!this.next())
+            return -1;
+        final int n = Math.min(length, this.block.length - this.pointer);
+        System.arraycopy(this.block, this.pointer, bytes, offset, n);
+        this.pointer += n;
+        return n;
+    }
+
+    @Override
+    public int available() {
+        return this.block.length - this.pointer;
+    }
+
+    /**
+     * Make sure the current block has bytes left
+     * @return false if the end of the stream is reached
+     */
+    private boolean next() throws IOException {
+        while (this.pointer == this.block.length) {
+            while (!this.end && this.blocks.size() < this.readAhead)
+                this.readBlock();
+            final CompletableFuture<byte[]> future = this.blocks.poll();
+            if (future == null)
+                return false;
+            try {
+                this.block = future.join();
+            } catch (final CompletionException e) {
+                if (e.getCause() instanceof UncheckedIOException)
+                    throw ((UncheckedIOException) e.getCause()).getCause();
+                throw e;
+            }
+            this.pointer = 0;
+        }
+        return true;
+    }
+
+    private void readBlock() throws IOException {
+        if (!this.started) {
+            if (!this.readFully(this.header, 5))
+                throw new EOFException("Stream header is missing");
+            if (getInt(this.header, 0) != BlockCompressedOutputStream.MAGIC)
+                throw new ZipException("Not a block compressed stream");
+            if (this.header[4] != this.codec.getId())
+                throw new ZipException("Stream is compressed by codec " + this.header[4] + ", not " + this.codec.getId());
+            this.started = true;
+        }
+        if (!this.readFully(this.header, this.header.length)) {
+            this.end = true;
+            return;
+        }
+        final int length = getInt(this.header, 0);
+        final int storedLength = getInt(this.header, 4);
+        final int crc = getInt(this.header, 8);
+        if (length <= 0 || storedLength <= 0 || storedLength > length)
+            throw new ZipException("Block header is not correct");
+        final byte[] stored = new byte[storedLength];
+        if (!this.readFully(stored, storedLength))
+            throw new EOFException("Block is truncated");
+        this.blocks.add(CompletableFuture.supplyAsync(() -> this.decode(stored, length, crc), this.executor));
+    }
+
+    private byte[] decode(final byte[] stored, final int length, final int crc) {
+        try {
+            final byte[] block;
+            if (stored.length == length)
+                block = stored;
+            else {
+                block = new byte[length];
+                this.codec.decompress(stored, 0, stored.length, block);
+            }
+            final CRC32 crc32 = new CRC32();
+            crc32.update(block, 0, length);
+            if ((int) crc32.getValue() != crc)
+                throw new ZipException("Block checksum is not correct");
+            return block;
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Read exactly the length of bytes
+     * @return false if the end of the stream is reached before any byte is read
+     */
+    private boolean readFully(final byte[] bytes, final int length) throws IOException {
+        int n = 0;
+        while (n < length) {
+            final int read = this.inputStream.read(bytes, n, length - n);
+            if (read == -1) {
+                if (n == 0)
+                    return false;
+                throw new EOFException("Block is truncated");
+            }
+            n += read;
+        }
+        return true;
+    }
+
+    private static int getInt(final byte[] bytes, final int offset) {
+        return bytes[offset] & 0xFF | (bytes[offset + 1] & 0xFF) << 8 | (bytes[offset + 2] & 0xFF) << 16 | (bytes[offset + 3] & 0xFF) << 24;
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.end = true;
+        this.blocks.clear();
+        this.inputStream.close();
+    }
+}
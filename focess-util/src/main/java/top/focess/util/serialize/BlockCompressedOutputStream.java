@@ -0,0 +1,135 @@
+package top.focess.util.serialize;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.CRC32;
+
+/**
+ * An output stream writing the bytes as independently compressed blocks.
+ * <p>
+ * The stream starts with the magic number and the codec id. Every block has a header of three little-endian ints:
+ * the original length, the stored length and the CRC32 of the original bytes. A block which does not shrink is stored as it is,
+ * in which case the stored length equals the original length.
+ * <p>
+ * It is used below a {@link StreamingFocessWriter}, for example {@code new StreamingFocessWriter(new BlockCompressedOutputStream(outputStream))}.
+ * @deprecated FocessUtil is no longer maintained. Do not use.
+ */
+@Deprecated(forRemoval = true, since = "1.1.25")
+public class BlockCompressedOutputStream extends OutputStream {
+
+    static final int MAGIC = 0x4B424346;
+
+    static final int HEADER_SIZE = 12;
+
+    private static final int DEFAULT_BLOCK_SIZE = 1 << 16;
+
+    private final OutputStream outputStream;
+
+    private final BlockCodec codec;
+
+    private final byte[] block;
+
+    private final byte[] header = new byte[HEADER_SIZE];
+
+    private final CRC32 crc32 = new CRC32();
+
+    private int position;
+
+    private boolean started;
+
+    private boolean closed;
+
+    public BlockCompressedOutputStream(final OutputStream outputStream) {
+        this(outputStream, new DeflateBlockCodec(), DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * Create a block compressed output stream
+     * @param outputStream the target output stream
+     * @param codec the codec compressing the blocks
+     * @param blockSize the maximum number of original bytes in a block
+     */
+    public BlockCompressedOutputStream(final OutputStream outputStream, final BlockCodec codec, final int blockSize) {
+        if (blockSize <= 0)
+            throw new IllegalArgumentException("Block size must be positive");
+        this.outputStream = outputStream;
+        this.codec = codec;
+        this.block = new byte[blockSize];
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+        if (this.position == this.block.length)
+            this.writeBlock();
+        this.block[this.position++] = (byte) b;
+    }
+
+    @Override
+    public void write(final byte[] bytes, int offset, int length) throws IOException {
+        if (offset < 0 || length < 0 || offset > bytes.length - length)
+            throw new IndexOutOfBoundsException();
+        while (length > 0) {
+            if (this.position == this.block.length)
+                this.writeBlock();
+            final int n = Math.min(length, this.block.length - this.position);
+            System.arraycopy(bytes, offset, this.block, this.position, n);
+            this.position += n;
+            offset += n;
+            length -= n;
+        }
+    }
+
+    private void writeBlock() throws IOException {
+        if (this.closed)
+            throw new IOException("Stream closed");
+        if (!this.started) {
+            putInt(this.header, 0, MAGIC);
+            this.header[4] = this.codec.getId();
+            this.outputStream.write(this.header, 0, 5);
+            this.started = true;
+        }
+        if (this.position == 0)
+            return;
+        this.crc32.reset();
+        this.crc32.update(this.block, 0, this.position);
+        final byte[] compressed = this.codec.compress(this.block, 0, this.position);
+        final boolean stored = compressed.length >= this.position;
+        putInt(this.header, 0, this.position);
+        putInt(this.header, 4, stored ? this.position : compressed.length);
+        putInt(this.header, 8, (int) this.crc32.getValue());
+        this.outputStream.write(this.header);
+        if (stored)
+            this.outputStream.write(this.block, 0, this.position);
+        else this.outputStream.write(compressed);
+        this.position = 0;
+    }
+
+    static void putInt(final byte[] bytes, final int offset, final int v) {
+        bytes[offset] = (byte) v;
+        bytes[offset + 1] = (byte) (v >>> 8);
+        bytes[offset + 2] = (byte) (v >>> 16);
+        bytes[offset + 3] = (byte) (v >>> 24);
+    }
+
+    /**
+     * Write the buffered bytes as a block and flush the target, so a flush ends the current block early
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public void flush() throws IOException {
+        this.writeBlock();
+        this.outputStream.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (this.closed)
+            return;
+        try {
+            this.writeBlock();
+        } finally {
+            this.closed = true;
+            this.outputStream.close();
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package top.focess.util.serialize;
+
+import com.google.common.collect.Maps;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Map;
+
+/**
+ * This class is used to deserialize FocessSerializable-Object from a ByteBuffer, for example a direct buffer filled by a channel or written by {@link DirectFocessWriter}.
+ * <p>
+ * The bytes between the position and the limit of the buffer are decoded straight from the buffer without copying them into the heap, and the buffer itself is never modified.
+ * @deprecated FocessUtil is no longer maintained. Do not use.
+ */
+@Deprecated(forRemoval = true, since = "1.1.25")
+public class ByteBufferFocessReader extends SimpleFocessReader {
+
+    private ByteBuffer buffer;
+
+    private int position;
+
+    /**
+     * The index of the first byte to read in the buffer, which the positions of {@link #seek(long)} are relative to
+     */
+    private int start;
+
+    private int end;
+
+    public ByteBufferFocessReader(final ByteBuffer buffer) {
+        this(buffer, Maps.newHashMap());
+    }
+
+    public ByteBufferFocessReader(final ByteBuffer buffer, final Map<Class<?>, Reader<?>> readerMap) {
+        super(new byte[0], readerMap);
+        this.wrap(buffer);
+    }
+
+    /**
+     * Read the bytes between the position and the limit of the given buffer from the beginning, so that this reader can be reused for another message.
+     * The reader map is kept.
+     * @param buffer the buffer to read
+     * @return this reader
+     */
+    public ByteBufferFocessReader wrap(final ByteBuffer buffer) {
+        super.wrap(this.bytes, 0, 0);
+        this.buffer = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        this.position = this.start = buffer.position();
+        this.end = buffer.limit();
+        return this;
+    }
+
+    /**
+     * The bytes are read from a ByteBuffer
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public SimpleFocessReader wrap(final byte[] bytes, final int offset, final int length) {
+        throw new UnsupportedOperationException("ByteBufferFocessReader can not read from a byte array");
+    }
+
+    /**
+     * Get the index of the next byte to be read in the buffer
+     * @return the index of the next byte to be read in the buffer
+     */
+    public int getPosition() {
+        return this.position;
+    }
+
+    /**
+     * The forked reader shares the buffer of this reader
+     */
+    @Override
+    protected SimpleFocessReader fork() {
+        final ByteBufferFocessReader reader = new ByteBufferFocessReader(this.buffer, this.readerMap);
+        reader.start = this.start;
+        reader.end = this.end;
+        return reader;
+    }
+
+    @Override
+    protected long tell() {
+        return this.position - this.start;
+    }
+
+    @Override
+    protected void seek(final long position) {
+        if (position < 0 || position > this.end - this.start)
+            throw new IllegalArgumentException("Position is out of range");
+        this.position = this.start + (int) position;
+    }
+
+    @Override
+    protected void ensureReadable(final int n) {
+        if (this.end - this.position < n)
+            throw new SerializationParseException("Read over");
+    }
+
+    @Override
+    protected void skipBytes(final int n) {
+        this.ensureReadable(n);
+        this.position += n;
+    }
+
+    @Override
+    protected boolean hasRemaining() {
+        return this.position < this.end;
+    }
+
+    @Override
+    protected void readBytes(final byte[] bytes, final int offset, final int length) {
+        this.ensureReadable(length);
+        // use a duplicate to keep the shared buffer position untouched
+        final ByteBuffer duplicate = this.buffer.duplicate();
+        ((Buffer) duplicate).position(this.position);
+        duplicate.get(bytes, offset, length);
+        this.position += length;
+    }
+
+    @Override
+    protected ByteBuffer readView(final int count, final int size) {
+        this.ensureReadable(size);
+        final int length = Math.min(count, (this.end - this.position) / size) * size;
+        final ByteBuffer view = this.readSlice(length);
+        return view.order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    @Override
+    protected ByteBuffer readSlice(final int length) {
+        this.ensureReadable(length);
+        final ByteBuffer slice = this.buffer.duplicate();
+        ((Buffer) slice).position(this.position);
+        ((Buffer) slice).limit(this.position + length);
+        this.position += length;
+        return slice.slice();
+    }
+
+    @Override
+    public byte readByte() {
+        this.ensureReadable(1);
+        return this.buffer.get(this.position++);
+    }
+
+    @Override
+    protected short readFixedShort() {
+        this.ensureReadable(2);
+        final short v = this.buffer.getShort(this.position);
+        this.position += 2;
+        return v;
+    }
+
+    @Override
+    protected int readFixedInt() {
+        this.ensureReadable(4);
+        final int v = this.buffer.getInt(this.position);
+        this.position += 4;
+        return v;
+    }
+
+    @Override
+    protected long readFixedLong() {
+        this.ensureReadable(8);
+        final long v = this.buffer.getLong(this.position);
+        this.position += 8;
+        return v;
+    }
+
+    @Override
+    public String readString() {
+        final int length = this.readLength();
+        this.ensureReadable(length);
+        final String v = this.decodeUTF8(this.buffer, this.position, length);
+        this.position += length;
+        return v;
+    }
+}
@@ -0,0 +1,121 @@
+package top.focess.util.serialize;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.util.concurrent.ExecutionError;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A ClassFinder decorator which caches both the found classes and the failed lookups.
+ * <p>
+ * The cache is concurrent and bounded, and the found classes are only weakly referenced so that their class loaders can still be unloaded.
+ * A failed lookup is only cached for a short time, so that a class which becomes available later, for example from a plugin, is still found.
+ * @deprecated FocessUtil is no longer maintained. Do not use.
+ */
+@Deprecated(forRemoval = true, since = "1.1.25")
+public class CachingClassFinder implements ClassFinder {
+
+    private static final int DEFAULT_MAXIMUM_SIZE = 4096;
+
+    private static final long DEFAULT_NOT_FOUND_EXPIRY_MILLIS = 1000;
+
+    private final ClassFinder classFinder;
+
+    /**
+     * The cached lookups, a weak reference to the found class or the time when a failed lookup expires
+     */
+    private final Cache<String, Object> cache;
+
+    private final long notFoundExpiry;
+
+    public CachingClassFinder(final ClassFinder classFinder) {
+        this(classFinder, DEFAULT_MAXIMUM_SIZE);
+    }
+
+    public CachingClassFinder(final ClassFinder classFinder, final long maximumSize) {
+        this(classFinder, maximumSize, DEFAULT_NOT_FOUND_EXPIRY_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * New a CachingClassFinder
+     * @param classFinder the decorated ClassFinder
+     * @param maximumSize the maximum number of cached lookups
+     * @param notFoundExpiry how long a failed lookup is cached, 0 to never cache it
+     * @param unit the unit of the expiry
+     */
+    public CachingClassFinder(final ClassFinder classFinder, final long maximumSize, final long notFoundExpiry, final TimeUnit unit) {
+        if (notFoundExpiry < 0)
+            throw new IllegalArgumentException("Expiry must not be negative");
+        this.classFinder = classFinder;
+        this.cache = CacheBuilder.newBuilder().maximumSize(maximumSize).recordStats().build();
+        this.notFoundExpiry = unit.toNanos(notFoundExpiry);
+    }
+
+    @Override
+    public Class<?> forName(final String className) throws ClassNotFoundException {
+        final boolean[] loaded = new boolean[1];
+        while (true) {
+            final Object cls;
+            try {
+                cls = this.cache.get(className, () -> {
+                    loaded[0] = true;
+                    try {
+                        return new WeakReference<>(this.classFinder.forName(className));
+                    } catch (final ClassNotFoundException e) {
+                        return System.nanoTime() + this.notFoundExpiry;
+                    }
+                });
+            } catch (final ExecutionException | UncheckedExecutionException | ExecutionError e) {
+                if (e.getCause() instanceof RuntimeException)
+                    throw (RuntimeException) e.getCause();
+                if (e.getCause() instanceof Error)
+                    throw (Error) e.getCause();
+                throw new IllegalStateException(e.getCause());
+            }
+            if (cls instanceof WeakReference) {
+                final Class<?> found = (Class<?>) ((WeakReference<?>) cls).get();
+                if (found != null)
+                    return found;
+            } else if (loaded[0] || (Long) cls - System.nanoTime() > 0)
+                throw new ClassNotFoundException(className);
+            // the class has been unloaded, or the failed lookup has expired
+            this.cache.asMap().remove(className, cls);
+        }
+    }
+
+    /**
+     * Discard all the cached lookups, for example after new classes become available
+     */
+    public void invalidateAll() {
+        this.cache.invalidateAll();
+    }
+
+    /**
+     * Get the statistics of the cache
+     * @return the statistics of the cache
+     */
+    public CacheStats getStats() {
+        return this.cache.stats();
+    }
+
+    /**
+     * Get the number of lookups answered by the cache, including the cached failures
+     * @return the number of lookups answered by the cache
+     */
+    public long getHitCount() {
+        return this.cache.stats().hitCount();
+    }
+
+    /**
+     * Get the number of lookups passed to the decorated ClassFinder
+     * @return the number of lookups passed to the decorated ClassFinder
+     */
+    public long getMissCount() {
+        return this.cache.stats().missCount();
+    }
+}
@@ -0,0 +1,164 @@
+package top.focess.util.serialize;
+
+import com.google.common.collect.Maps;
+import com.thoughtworks.xstream.converters.reflection.PureJavaReflectionProvider;
+
+import java.io.Serializable;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * The reflection metadata of a class serialized field by field, resolved once per class.
+ * @deprecated FocessUtil is no longer maintained. Do not use.
+ */
+@Deprecated(forRemoval = true, since = "1.1.25")
+final class ClassMetadata {
+
+    private static final PureJavaReflectionProvider PROVIDER = new PureJavaReflectionProvider();
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private static final ClassValue<ClassMetadata> CACHE = new ClassValue<ClassMetadata>() {
+        @Override
+        protected ClassMetadata computeValue(final Class<?> type) {
+            return new ClassMetadata(type);
+        }
+    };
+
+    private final Class<?> cls;
+
+    private final String[] names;
+
+    private final MethodHandle[] getters;
+
+    private final MethodHandle[] setters;
+
+    private final Map<String, Integer> indexes = Maps.newHashMap();
+
+    private final Constructor<?> constructor;
+
+    private ClassMetadata(final Class<?> cls) {
+        this.cls = cls;
+        this.constructor = instanceConstructor(cls);
+        final Field[] fields = Stream.of(cls.getDeclaredFields()).filter(f -> (f.getModifiers() & (Modifier.TRANSIENT | Modifier.STATIC)) == 0).toArray(Field[]::new);
+        this.names = new String[fields.length];
+        this.getters = new MethodHandle[fields.length];
+        this.setters = new MethodHandle[fields.length];
+        final MethodHandles.Lookup lookup = MethodHandles.lookup();
+        for (int i = 0; i < fields.length; i++) {
+            final Field field = fields[i];
+            field.setAccessible(true);
+            this.names[i] = field.getName();
+            try {
+                this.getters[i] = lookup.unreflectGetter(field).asType(GETTER_TYPE);
+                this.setters[i] = lookup.unreflectSetter(field).asType(SETTER_TYPE);
+            } catch (final IllegalAccessException e) {
+                throw new SerializationException(e);
+            }
+            this.indexes.put(field.getName(), i);
+        }
+    }
+
+    /**
+     * Get the constructor which creates an instance: the no-arg constructor of the class if it has one, so that its field initializers run,
+     * otherwise the constructor which creates an instance like Java serialization does
+     * @param cls the class
+     * @return the constructor, or null if it is not available in this JVM
+     */
+    private static Constructor<?> instanceConstructor(final Class<?> cls) {
+        if (cls.isInterface() || Modifier.isAbstract(cls.getModifiers()))
+            return null;
+        try {
+            final Constructor<?> constructor = cls.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            return constructor;
+        } catch (final Exception | LinkageError ignored) {
+            // fall back to the serialization constructor
+        }
+        if (!Serializable.class.isAssignableFrom(cls))
+            return null;
+        Class<?> superclass = cls;
+        while (superclass != null && Serializable.class.isAssignableFrom(superclass))
+            superclass = superclass.getSuperclass();
+        try {
+            // the reflection factory is an internal API, so it is only looked up reflectively
+            final Class<?> factoryClass = Class.forName("sun.reflect.ReflectionFactory");
+            final Object factory = factoryClass.getMethod("getReflectionFactory").invoke(null);
+            final Method method = factoryClass.getMethod("newConstructorForSerialization", Class.class, Constructor.class);
+            final Constructor<?> constructor = (Constructor<?>) method.invoke(factory, cls, (superclass == null ? Object.class : superclass).getDeclaredConstructor());
+            constructor.setAccessible(true);
+            return constructor;
+        } catch (final Exception | LinkageError e) {
+            return null;
+        }
+    }
+
+    /**
+     * Get the metadata of the class
+     * @param cls the class
+     * @return the metadata of the class
+     *
+     * @throws SerializationException if the fields of the class are not accessible
+     */
+    static ClassMetadata of(final Class<?> cls) {
+        return CACHE.get(cls);
+    }
+
+    int size() {
+        return this.names.length;
+    }
+
+    String getName(final int index) {
+        return this.names[index];
+    }
+
+    /**
+     * Get the index of the field
+     * @param name the name of the field
+     * @return the index of the field, or -1 if there is no such field
+     */
+    int indexOf(final String name) {
+        final Integer index = this.indexes.get(name);
+        return index == null ? -1 : index;
+    }
+
+    Object get(final int index, final Object o) {
+        try {
+            return (Object) this.getters[index].invokeExact(o);
+        } catch (final RuntimeException | Error e) {
+            throw e;
+        } catch (final Throwable e) {
+            throw new UndeclaredThrowableException(e);
+        }
+    }
+
+    void set(final int index, final Object o, final Object value) {
+        try {
+            this.setters[index].invokeExact(o, value);
+        } catch (final RuntimeException | Error e) {
+            throw e;
+        } catch (final Throwable e) {
+            throw new UndeclaredThrowableException(e);
+        }
+    }
+
+    /**
+     * Create a new instance of the class with its no-arg constructor, or without calling any constructor of the class if it has none
+     * @return the new instance
+     */
+    Object newInstance() throws ReflectiveOperationException {
+        if (this.constructor != null)
+            return this.constructor.newInstance();
+        return PROVIDER.newInstance(this.cls);
+    }
+}
@@ -0,0 +1,179 @@
+package top.focess.util.serialize;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+
+/**
+ * The registry of the numeric ids of classes and their fields, which is shared by all the writers and readers.
+ * <p>
+ * An object of a registered class is written with the varint id of its class and the varint ids of its fields instead of their names.
+ * The ids must be the same on the writing and the reading side. To evolve a schema, append the new fields to the end of the field list
+ * and keep the names of the removed fields, so that the ids of the other fields do not change. A field id unknown to the reader is skipped.
+ * @deprecated FocessUtil is no longer maintained. Do not use.
+ */
+@Deprecated(forRemoval = true, since = "1.1.25")
+public final class ClassRegistry {
+
+    private static final int MAX_ID = 0xFFFF;
+
+    /**
+     * The registrations of the classes, kept with the classes themselves so that their class loaders can still be unloaded
+     */
+    private static final ClassValue<Entry> REGISTRATIONS = new ClassValue<Entry>() {
+        @Override
+        protected Entry computeValue(final Class<?> type) {
+            return new Entry();
+        }
+    };
+
+    /**
+     * The registrations indexed by the class ids, which are only weakly referenced for the same reason
+     */
+    @SuppressWarnings("unchecked")
+    private static volatile WeakReference<Registration>[] registrations = new WeakReference[0];
+
+    private ClassRegistry() {}
+
+    /**
+     * Register the class with the id, and give its fields the ids in the order of their names.
+     * <p>
+     * The declaration order of the fields is not specified by the JVM, so it is not used. Adding or removing a field changes the ids of the fields
+     * whose names are ordered after it, so a class whose schema evolves should be registered with {@link #register(Class, int, String...)} instead.
+     * @param cls the class
+     * @param id the id of the class
+     *
+     * @throws IllegalArgumentException if the id is not valid or is used by another class
+     */
+    public static void register(final Class<? extends FocessSerializable> cls, final int id) {
+        final ClassMetadata metadata = ClassMetadata.of(cls);
+        final String[] fields = new String[metadata.size()];
+        for (int i = 0; i < fields.length; i++)
+            fields[i] = metadata.getName(i);
+        Arrays.sort(fields);
+        register(cls, id, fields);
+    }
+
+    /**
+     * Register the class with the id, and give every field the index of its name as its id
+     * @param cls the class
+     * @param id the id of the class
+     * @param fields the names of the fields indexed by their ids, the name of a removed field is kept to reserve its id
+     *
+     * @throws IllegalArgumentException if the id is not valid or is used by another class, or a serialized field has no id
+     */
+    public static synchronized void register(final Class<? extends FocessSerializable> cls, final int id, final String... fields) {
+        if (id < 0 || id > MAX_ID)
+            throw new IllegalArgumentException("Class id must be between 0 and " + MAX_ID);
+        final Registration registered = get(id);
+        if (registered != null && registered.cls != cls)
+            throw new IllegalArgumentException("Class id " + id + " is used by class " + registered.cls.getName());
+        final Registration registration = new Registration(cls, id, fields);
+        final Entry entry = REGISTRATIONS.get(cls);
+        final WeakReference<Registration>[] registrations = Arrays.copyOf(ClassRegistry.registrations, Math.max(ClassRegistry.registrations.length, id + 1));
+        if (entry.registration != null)
+            registrations[entry.registration.id] = null;
+        registrations[id] = new WeakReference<>(registration);
+        entry.registration = registration;
+        ClassRegistry.registrations = registrations;
+    }
+
+    /**
+     * Unregister the class
+     * @param cls the class
+     */
+    public static synchronized void unregister(final Class<?> cls) {
+        final Entry entry = REGISTRATIONS.get(cls);
+        final Registration registration = entry.registration;
+        if (registration != null) {
+            final WeakReference<Registration>[] registrations = ClassRegistry.registrations.clone();
+            registrations[registration.id] = null;
+            entry.registration = null;
+            ClassRegistry.registrations = registrations;
+        }
+    }
+
+    @Nullable
+    static Registration get(final Class<?> cls) {
+        return ClassRegistry.registrations.length == 0 ? null : REGISTRATIONS.get(cls).registration;
+    }
+
+    @Nullable
+    static Registration get(final int id) {
+        final WeakReference<Registration>[] registrations = ClassRegistry.registrations;
+        final WeakReference<Registration> registration = id >= 0 && id < registrations.length ? registrations[id] : null;
+        return registration == null ? null : registration.get();
+    }
+
+    private static final class Entry {
+
+        private volatile Registration registration;
+    }
+
+    static final class Registration {
+
+        private final Class<?> cls;
+
+        private final int id;
+
+        private final ClassMetadata metadata;
+
+        /**
+         * The field ids indexed by the field indexes of the metadata
+         */
+        private final int[] ids;
+
+        /**
+         * The field indexes of the metadata indexed by the field ids, -1 if the field does not exist in this class
+         */
+        private final int[] indexes;
+
+        private Registration(final Class<?> cls, final int id, final String[] fields) {
+            this.cls = cls;
+            this.id = id;
+            this.metadata = ClassMetadata.of(cls);
+            this.ids = new int[this.metadata.size()];
+            Arrays.fill(this.ids, -1);
+            this.indexes = new int[fields.length];
+            for (int i = 0; i < fields.length; i++) {
+                final int index = fields[i] == null ? -1 : this.metadata.indexOf(fields[i]);
+                this.indexes[i] = index;
+                if (index != -1) {
+                    if (this.ids[index] != -1)
+                        throw new IllegalArgumentException("Field " + fields[i] + " has more than one id");
+                    this.ids[index] = i;
+                }
+            }
+            for (int i = 0; i < this.ids.length; i++)
+                if (this.ids[i] == -1)
+                    throw new IllegalArgumentException("Field " + this.metadata.getName(i) + " of class " + cls.getName() + " has no id");
+        }
+
+        int getId() {
+            return this.id;
+        }
+
+        ClassMetadata getMetadata() {
+            return this.metadata;
+        }
+
+        /**
+         * Get the id of the field
+         * @param index the index of the field in the metadata
+         * @return the id of the field
+         */
+        int getFieldId(final int index) {
+            return this.ids[index];
+        }
+
+        /**
+         * Get the index of the field
+         * @param id the id of the field
+         * @return the index of the field in the metadata, or -1 if there is no such field in this class
+         */
+        int indexOf(final int id) {
+            return id >= 0 && id < this.indexes.length ? this.indexes[id] : -1;
+        }
+    }
+}
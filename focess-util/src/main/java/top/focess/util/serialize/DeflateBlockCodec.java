@@ -0,0 +1,79 @@
+package top.focess.util.serialize;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * The block codec using {@link Deflater} and {@link Inflater}.
+ * @deprecated FocessUtil is no longer maintained. Do not use.
+ */
+@Deprecated(forRemoval = true, since = "1.1.25")
+public class DeflateBlockCodec implements BlockCodec {
+
+    public static final byte ID = 1;
+
+    private final int level;
+
+    public DeflateBlockCodec() {
+        this(Deflater.DEFAULT_COMPRESSION);
+    }
+
+    /**
+     * Create a deflate codec
+     * @param level the compression level, from 0 to 9, or -1 for the default level
+     */
+    public DeflateBlockCodec(final int level) {
+        if ((level < 0 || level > 9) && level != Deflater.DEFAULT_COMPRESSION)
+            throw new IllegalArgumentException("Invalid compression level: " + level);
+        this.level = level;
+    }
+
+    @Override
+    public byte getId() {
+        return ID;
+    }
+
+    @Override
+    public byte[] compress(final byte[] bytes, final int offset, final int length) {
+        final Deflater deflater = new Deflater(this.level);
+        try {
+            deflater.setInput(bytes, offset, length);
+            deflater.finish();
+            byte[] compressed = new byte[Math.max(64, length >>> 1)];
+            int n = 0;
+            while (!deflater.finished()) {
+                if (n == compressed.length)
+                    compressed = Arrays.copyOf(compressed, compressed.length << 1);
+                n += deflater.deflate(compressed, n, compressed.length - n);
+            }
+            return Arrays.copyOf(compressed, n);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    @Override
+    public void decompress(final byte[] bytes, final int offset, final int length, final byte[] target) throws IOException {
+        final Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(bytes, offset, length);
+            int n = 0;
+            while (n < target.length && !inflater.finished()) {
+                final int inflated = inflater.inflate(target, n, target.length - n);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary()))
+                    break;
+                n += inflated;
+            }
+            if (n != target.length || !inflater.finished())
+                throw new ZipException("Decompressed length is not correct");
+        } catch (final DataFormatException e) {
+            throw new ZipException(e.getMessage());
+        } finally {
+            inflater.end();
+        }
+    }
+}
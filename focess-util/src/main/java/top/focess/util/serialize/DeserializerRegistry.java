@@ -0,0 +1,124 @@
+package top.focess.util.serialize;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * The registry of the deserialize entry points of FocessSerializable classes, which is shared by all the readers.
+ * <p>
+ * The static {@code deserialize(Map)} method of a class is resolved only once and called through a MethodHandle afterwards.
+ * A factory can also be registered explicitly, so that no reflection is needed at all.
+ * @deprecated FocessUtil is no longer maintained. Do not use.
+ */
+@Deprecated(forRemoval = true, since = "1.1.25")
+public final class DeserializerRegistry {
+
+    private static final MethodType DESERIALIZE_TYPE = MethodType.methodType(Object.class, Map.class);
+
+    /**
+     * The deserializers of the classes, kept with the classes themselves so that their class loaders can still be unloaded
+     */
+    private static final ClassValue<Entry> DESERIALIZERS = new ClassValue<Entry>() {
+        @Override
+        protected Entry computeValue(final Class<?> type) {
+            return new Entry();
+        }
+    };
+
+    private DeserializerRegistry() {}
+
+    /**
+     * Register the factory used to deserialize the class
+     * @param cls the class
+     * @param factory the factory creating the object from the serialized map
+     * @param <T> the type of the class
+     */
+    public static <T extends FocessSerializable> void register(final Class<T> cls, final Function<Map<String, Object>, ? extends T> factory) {
+        DESERIALIZERS.get(cls).factory = factory;
+    }
+
+    /**
+     * Unregister the factory of the class
+     * @param cls the class
+     */
+    public static void unregister(final Class<?> cls) {
+        DESERIALIZERS.get(cls).factory = null;
+    }
+
+    /**
+     * Get the deserializer of the class
+     * @param cls the class
+     * @return the registered factory, or a function calling the static deserialize method of the class
+     *
+     * @throws SerializationParseException if there is no registered factory and the class has no static deserialize method
+     */
+    public static Function<Map<String, Object>, ?> get(final Class<?> cls) {
+        final Entry entry = DESERIALIZERS.get(cls);
+        final Function<Map<String, Object>, ?> factory = entry.factory;
+        if (factory != null)
+            return factory;
+        Function<Map<String, Object>, ?> resolved = entry.resolved;
+        // resolving twice in a race is harmless
+        if (resolved == null)
+            entry.resolved = resolved = resolve(cls);
+        return resolved;
+    }
+
+    /**
+     * Deserialize the object of the class from the serialized map
+     * @param cls the class
+     * @param map the serialized map
+     * @return the deserialized object
+     *
+     * @throws SerializationParseException if there is no deserializer for the class
+     */
+    public static Object deserialize(final Class<?> cls, final Map<String, Object> map) {
+        return get(cls).apply(map);
+    }
+
+    private static Function<Map<String, Object>, ?> resolve(final Class<?> cls) {
+        final Method method;
+        try {
+            method = cls.getMethod("deserialize", Map.class);
+        } catch (final NoSuchMethodException e) {
+            throw new SerializationParseException(e);
+        }
+        if (!Modifier.isStatic(method.getModifiers()))
+            throw new SerializationParseException("Deserialize method of class " + cls.getName() + " is not static");
+        final MethodHandle handle;
+        try {
+            method.setAccessible(true);
+            handle = MethodHandles.lookup().unreflect(method).asType(DESERIALIZE_TYPE);
+        } catch (final IllegalAccessException | RuntimeException e) {
+            throw new SerializationParseException(e);
+        }
+        return map -> {
+            try {
+                return (Object) handle.invokeExact(map);
+            } catch (final RuntimeException | Error e) {
+                throw e;
+            } catch (final Throwable e) {
+                throw new UndeclaredThrowableException(e);
+            }
+        };
+    }
+
+    private static final class Entry {
+
+        /**
+         * The registered factory, which takes precedence over the static deserialize method
+         */
+        private volatile Function<Map<String, Object>, ?> factory;
+
+        /**
+         * The function calling the static deserialize method, resolved on first use
+         */
+        private volatile Function<Map<String, Object>, ?> resolved;
+    }
+}
@@ -0,0 +1,96 @@
+package top.focess.util.serialize;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A pool of reusable direct ByteBuffer slabs, whose capacities are powers of two.
+ * <p>
+ * Allocating direct memory is expensive and it is only freed by the garbage collector, so a released slab is kept for the next acquire of the same size,
+ * until the pool holds the retained number of bytes. The pool is thread-safe.
+ * @deprecated FocessUtil is no longer maintained. Do not use.
+ */
+@Deprecated(forRemoval = true, since = "1.1.25")
+public class DirectBufferPool {
+
+    private static final int MIN_SHIFT = 12;
+
+    private static final int MAX_SHIFT = 30;
+
+    private static final long DEFAULT_RETAINED_BYTES = 64L << 20;
+
+    /**
+     * The pooled slabs, indexed by their capacity shift minus {@link #MIN_SHIFT}
+     */
+    private final Queue<ByteBuffer>[] slabs;
+
+    private final long retainedBytes;
+
+    private final AtomicLong pooledBytes = new AtomicLong();
+
+    public DirectBufferPool() {
+        this(DEFAULT_RETAINED_BYTES);
+    }
+
+    /**
+     * Create a pool
+     * @param retainedBytes the maximum number of bytes of the slabs kept in this pool
+     */
+    @SuppressWarnings("unchecked")
+    public DirectBufferPool(final long retainedBytes) {
+        if (retainedBytes < 0)
+            throw new IllegalArgumentException("Retained bytes must not be negative");
+        this.retainedBytes = retainedBytes;
+        this.slabs = new Queue[MAX_SHIFT - MIN_SHIFT + 1];
+        for (int i = 0; i < this.slabs.length; i++)
+            this.slabs[i] = new ConcurrentLinkedQueue<>();
+    }
+
+    /**
+     * Get a cleared little-endian slab
+     * @param capacity the minimum capacity of the slab
+     * @return a pooled slab, or a newly allocated one if there is no pooled slab of this size
+     */
+    public ByteBuffer acquire(final int capacity) {
+        if (capacity < 0)
+            throw new IllegalArgumentException("Capacity must not be negative");
+        final int shift = capacity <= 1 << MIN_SHIFT ? MIN_SHIFT : 32 - Integer.numberOfLeadingZeros(capacity - 1);
+        // a slab larger than the largest size is never pooled
+        if (shift > MAX_SHIFT)
+            return ByteBuffer.allocateDirect(capacity).order(ByteOrder.LITTLE_ENDIAN);
+        final ByteBuffer slab = this.slabs[shift - MIN_SHIFT].poll();
+        if (slab == null)
+            return ByteBuffer.allocateDirect(1 << shift).order(ByteOrder.LITTLE_ENDIAN);
+        this.pooledBytes.addAndGet(-slab.capacity());
+        ((Buffer) slab).clear();
+        return slab;
+    }
+
+    /**
+     * Return the slab to this pool, it must not be used anymore
+     * @param slab the slab acquired from this pool
+     */
+    public void release(final ByteBuffer slab) {
+        final int capacity = slab.capacity();
+        final int shift = Integer.numberOfTrailingZeros(capacity);
+        if (!slab.isDirect() || slab.isReadOnly() || Integer.bitCount(capacity) != 1 || shift < MIN_SHIFT || shift > MAX_SHIFT)
+            return;
+        if (this.pooledBytes.addAndGet(capacity) > this.retainedBytes) {
+            this.pooledBytes.addAndGet(-capacity);
+            return;
+        }
+        this.slabs[shift - MIN_SHIFT].offer(slab);
+    }
+
+    /**
+     * Get the number of bytes of the slabs kept in this pool
+     * @return the number of bytes of the slabs kept in this pool
+     */
+    public long getPooledBytes() {
+        return this.pooledBytes.get();
+    }
+}
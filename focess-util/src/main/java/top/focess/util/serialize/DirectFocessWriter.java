@@ -0,0 +1,196 @@
+package top.focess.util.serialize;
+
+import com.google.common.collect.Maps;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.Map;
+
+/**
+ * This class is used to serialize FocessSerializable-Object into an off-heap direct ByteBuffer.
+ * <p>
+ * The buffer is a slab acquired from a {@link DirectBufferPool}, which is swapped for a larger slab when it is full and released to the pool when this writer is closed.
+ * The written bytes are passed to a channel as they are, without the temporary direct copy a heap buffer needs.
+ * @deprecated FocessUtil is no longer maintained. Do not use.
+ */
+@Deprecated(forRemoval = true, since = "1.1.25")
+public class DirectFocessWriter extends SimpleFocessWriter implements Closeable {
+
+    private static final int DEFAULT_CAPACITY = 4096;
+
+    /**
+     * The heap buffer of the superclass, which is never written
+     */
+    private static final byte[] NO_BUFFER = new byte[0];
+
+    private final DirectBufferPool pool;
+
+    /**
+     * The written bytes, only the first {@link #position} bytes are valid, or null if this writer is closed
+     */
+    private ByteBuffer slab;
+
+    public DirectFocessWriter(final DirectBufferPool pool) {
+        this(pool, Maps.newHashMap());
+    }
+
+    public DirectFocessWriter(final DirectBufferPool pool, final Map<Class<?>, Writer<?>> writerMap) {
+        this(pool, writerMap, DEFAULT_CAPACITY);
+    }
+
+    public DirectFocessWriter(final DirectBufferPool pool, final Map<Class<?>, Writer<?>> writerMap, final int capacity) {
+        super(NO_BUFFER, writerMap);
+        if (capacity <= 0)
+            throw new IllegalArgumentException("Capacity must be positive");
+        this.pool = pool;
+        this.slab = pool.acquire(capacity);
+    }
+
+    @Override
+    protected void ensureCapacity(final int n) {
+        final ByteBuffer slab = this.slab;
+        if (slab == null)
+            throw new IllegalStateException("Writer is closed");
+        if (slab.capacity() - this.position >= n)
+            return;
+        final int required = this.position + n;
+        if (required < 0)
+            throw new SerializationException(new IOException("Output is too large"));
+        final ByteBuffer larger = this.pool.acquire(Math.max(slab.capacity() << 1, required));
+        final ByteBuffer written = slab.duplicate();
+        ((Buffer) written).position(0);
+        ((Buffer) written).limit(this.position);
+        larger.put(written);
+        this.pool.release(slab);
+        this.slab = larger;
+    }
+
+    @Override
+    protected void writeFixedInt(final int v) {
+        this.ensureCapacity(4);
+        this.slab.putInt(this.position, v);
+        this.position += 4;
+    }
+
+    @Override
+    protected void writeFixedLong(final long v) {
+        this.ensureCapacity(8);
+        this.slab.putLong(this.position, v);
+        this.position += 8;
+    }
+
+    @Override
+    protected void writeFixedShort(final short v) {
+        this.ensureCapacity(2);
+        this.slab.putShort(this.position, v);
+        this.position += 2;
+    }
+
+    @Override
+    protected void writeVarInt(int v) {
+        this.ensureCapacity(5);
+        final ByteBuffer slab = this.slab;
+        int p = this.position;
+        while ((v & ~0x7F) != 0) {
+            slab.put(p++, (byte) (v & 0x7F | 0x80));
+            v >>>= 7;
+        }
+        slab.put(p++, (byte) v);
+        this.position = p;
+    }
+
+    @Override
+    protected void writeVarLong(long v) {
+        this.ensureCapacity(10);
+        final ByteBuffer slab = this.slab;
+        int p = this.position;
+        while ((v & ~0x7FL) != 0) {
+            slab.put(p++, (byte) (v & 0x7F | 0x80));
+            v >>>= 7;
+        }
+        slab.put(p++, (byte) v);
+        this.position = p;
+    }
+
+    @Override
+    protected void putByte(final int index, final byte v) {
+        this.slab.put(index, v);
+    }
+
+    @Override
+    protected void putFixedInt(final int index, final int v) {
+        this.slab.putInt(index, v);
+    }
+
+    @Override
+    protected void writeBytes(final byte[] bytes, final int offset, final int length) {
+        this.ensureCapacity(length);
+        final ByteBuffer target = this.slab.duplicate();
+        ((Buffer) target).position(this.position);
+        target.put(bytes, offset, length);
+        this.position += length;
+    }
+
+    @Override
+    protected ByteBuffer writeView(final int count, final int size) {
+        this.ensureCapacity(Math.min(count, VIEW_SIZE / size) * size);
+        final int length = Math.min(count, (this.slab.capacity() - this.position) / size) * size;
+        final ByteBuffer view = this.slab.duplicate();
+        ((Buffer) view).position(this.position);
+        ((Buffer) view).limit(this.position + length);
+        this.position += length;
+        return view.slice().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Get the written bytes as a read-only view of the slab, which is only valid until this writer is written again, reset or closed
+     * @return the view of the written bytes
+     */
+    public ByteBuffer toByteBuffer() {
+        this.ensureCapacity(0);
+        final ByteBuffer view = this.slab.asReadOnlyBuffer();
+        ((Buffer) view).position(0);
+        ((Buffer) view).limit(this.position);
+        return view;
+    }
+
+    @Override
+    public byte[] toByteArray() {
+        final byte[] bytes = new byte[this.position];
+        this.toByteBuffer().get(bytes);
+        return bytes;
+    }
+
+    @Override
+    public void writeTo(final OutputStream outputStream) throws IOException {
+        this.writeTo(Channels.newChannel(outputStream));
+    }
+
+    /**
+     * Write the written bytes to the given channel straight from the slab
+     * @param channel the given channel
+     * @throws IOException if an I/O error occurs
+     */
+    public void writeTo(final WritableByteChannel channel) throws IOException {
+        final ByteBuffer view = this.toByteBuffer();
+        while (view.hasRemaining())
+            channel.write(view);
+    }
+
+    /**
+     * Release the slab to the pool, this writer can not be used anymore
+     */
+    @Override
+    public void close() {
+        if (this.slab == null)
+            return;
+        this.pool.release(this.slab);
+        this.slab = null;
+    }
+}
@@ -1,12 +1,10 @@
 package top.focess.util.serialize;
 
-import com.google.common.collect.Lists;
-import com.google.common.primitives.Bytes;
+import com.google.common.collect.Maps;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
 import java.io.InputStream;
-import java.util.List;
 import java.util.Map;
 
 /**
@@ -18,6 +16,8 @@ public abstract class FocessReader {
 
     /**
      * New a FocessReader with given input stream
+     * <p>
+     * The input stream is read lazily, so the objects can be read one after another. It is closed once its end is reached, or when the returned reader is closed.
      * @param inputStream the given input stream
      * @return the FocessReader with given input stream
      *
@@ -25,23 +25,14 @@ public abstract class FocessReader {
      */
     @NotNull
     @Contract("_ -> new")
-    public static FocessReader newFocessReader(final InputStream inputStream) {
-        final List<Byte> byteList = Lists.newArrayList();
-        final byte[] bytes = new byte[1024];
-        int len;
-        try {
-            while ((len = inputStream.read(bytes)) != -1)
-                for (int i = 0; i < len; i++)
-                    byteList.add(bytes[i]);
-            inputStream.close();
-        } catch (final Exception e) {
-            throw new IllegalStateException(e);
-        }
-        return new SimpleFocessReader(Bytes.toArray(byteList));
+    public static StreamingFocessReader newFocessReader(final InputStream inputStream) {
+        return newFocessReader(inputStream, Maps.newHashMap());
     }
 
     /**
      * New a FocessReader with given input stream and reader map
+     * <p>
+     * The input stream is read lazily, so the objects can be read one after another. It is closed once its end is reached, or when the returned reader is closed.
      * @param inputStream the given input stream
      * @param readerMap the given reader map
      * @return the FocessReader with given input stream and reader map
@@ -50,23 +41,14 @@ public abstract class FocessReader {
      */
     @NotNull
     @Contract("_,_ -> new")
-    public static FocessReader newFocessReader(final InputStream inputStream, final Map<Class<?>, SimpleFocessReader.Reader<?>> readerMap) {
-        final List<Byte> byteList = Lists.newArrayList();
-        final byte[] bytes = new byte[1024];
-        int len;
-        try {
-            while ((len = inputStream.read(bytes)) != -1)
-                for (int i = 0; i < len; i++)
-                    byteList.add(bytes[i]);
-            inputStream.close();
-        } catch (final Exception e) {
-            throw new IllegalStateException(e);
-        }
-        return new SimpleFocessReader(Bytes.toArray(byteList), readerMap);
+    public static StreamingFocessReader newFocessReader(final InputStream inputStream, final Map<Class<?>, SimpleFocessReader.Reader<?>> readerMap) {
+        if (inputStream == null)
+            throw new IllegalStateException("Input stream is null");
+        final StreamingFocessReader reader = new StreamingFocessReader(inputStream, readerMap);
+        reader.closeOnEnd();
+        return reader;
     }
 
-
-
     /**
      * Read object from the reader
      * @return the object read from the reader
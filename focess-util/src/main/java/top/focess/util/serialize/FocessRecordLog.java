@@ -0,0 +1,258 @@
+package top.focess.util.serialize;
+
+import com.google.common.collect.Maps;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * An append-only log of serialized records with an offset index.
+ * <p>
+ * Every record in the log file is a little-endian length, the CRC32 of the frame and a {@code C_START...C_END} frame.
+ * The index file, named after the log file with the {@code .idx} suffix, holds the little-endian offset of every record.
+ * When the log is opened, a torn tail left by a crash is detected by its length or checksum and truncated, and the missing index entries are rebuilt.
+ * @deprecated FocessUtil is no longer maintained. Do not use.
+ */
+@Deprecated(forRemoval = true, since = "1.1.25")
+public class FocessRecordLog implements Closeable {
+
+    private static final String INDEX_SUFFIX = ".idx";
+
+    private static final int HEADER_SIZE = 8;
+
+    private static final int INDEX_ENTRY_SIZE = 8;
+
+    private final FileChannel log;
+
+    private final FileChannel index;
+
+    private final SimpleFocessWriter writer;
+
+    private final SimpleFocessReader reader;
+
+    private final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+
+    private final ByteBuffer entry = ByteBuffer.allocate(INDEX_ENTRY_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+
+    private final CRC32 crc32 = new CRC32();
+
+    /**
+     * The number of records
+     */
+    private long size;
+
+    /**
+     * The end offset of the last record
+     */
+    private long end;
+
+    public FocessRecordLog(final Path path) throws IOException {
+        this(path, Maps.newHashMap(), Maps.newHashMap());
+    }
+
+    /**
+     * Open the record log, create it if it does not exist, and recover it from a torn tail
+     * @param path the path of the log file
+     * @param writerMap the writer map used to append records
+     * @param readerMap the reader map used to read records
+     * @throws IOException if an I/O error occurs
+     */
+    public FocessRecordLog(final Path path, final Map<Class<?>, SimpleFocessWriter.Writer<?>> writerMap, final Map<Class<?>, SimpleFocessReader.Reader<?>> readerMap) throws IOException {
+        this.writer = new SimpleFocessWriter(writerMap);
+        this.reader = new SimpleFocessReader(new byte[0], readerMap);
+        this.log = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            this.index = FileChannel.open(path.resolveSibling(path.getFileName() + INDEX_SUFFIX), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        } catch (final IOException e) {
+            this.log.close();
+            throw e;
+        }
+        try {
+            this.recover();
+        } catch (final IOException | RuntimeException e) {
+            this.close();
+            throw e;
+        }
+    }
+
+    private void recover() throws IOException {
+        final long logSize = this.log.size();
+        final long entries = this.index.size() / INDEX_ENTRY_SIZE;
+        long size = 0;
+        long end = 0;
+        // every indexed record starts where the previous one ends, so a zero-filled or stale tail of the index breaks the chain
+        while (size < entries && this.offset(size) == end) {
+            final int length = this.checkHeader(end, logSize);
+            if (length == -1)
+                break;
+            end += HEADER_SIZE + length;
+            size++;
+        }
+        // the last indexed records may point into a tail which was never completely written
+        while (size > 0 && this.checkRecord(this.offset(size - 1), logSize) == -1)
+            end = this.offset(--size);
+        this.index.truncate(size * INDEX_ENTRY_SIZE);
+        // the records written after their index entries were lost
+        int length;
+        while ((length = this.checkRecord(end, logSize)) != -1) {
+            this.writeIndexEntry(size++, end);
+            end += HEADER_SIZE + length;
+        }
+        this.log.truncate(end);
+        this.size = size;
+        this.end = end;
+    }
+
+    /**
+     * Check whether the header at the offset describes a record which fits in the log, and load it into {@link #header}
+     * @return the length of the frame, or -1 if the record does not fit in the log
+     */
+    private int checkHeader(final long offset, final long logSize) throws IOException {
+        if (offset < 0 || logSize - offset < HEADER_SIZE)
+            return -1;
+        this.readFully(this.log, this.header, offset);
+        final int length = this.header.getInt(0);
+        if (length <= 0 || logSize - offset - HEADER_SIZE < length)
+            return -1;
+        return length;
+    }
+
+    /**
+     * Check whether there is a complete record with the correct checksum at the offset
+     * @return the length of the frame, or -1 if the record is not complete or not correct
+     */
+    private int checkRecord(final long offset, final long logSize) throws IOException {
+        final int length = this.checkHeader(offset, logSize);
+        if (length == -1)
+            return -1;
+        final int crc = this.header.getInt(4);
+        final byte[] frame = new byte[length];
+        this.readFully(this.log, ByteBuffer.wrap(frame), offset + HEADER_SIZE);
+        return this.crc(frame, length) == crc ? length : -1;
+    }
+
+    private int crc(final byte[] bytes, final int length) {
+        this.crc32.reset();
+        this.crc32.update(bytes, 0, length);
+        return (int) this.crc32.getValue();
+    }
+
+    private long offset(final long recordNumber) throws IOException {
+        this.readFully(this.index, this.entry, recordNumber * INDEX_ENTRY_SIZE);
+        return this.entry.getLong(0);
+    }
+
+    private void writeIndexEntry(final long recordNumber, final long offset) throws IOException {
+        ((Buffer) this.entry).clear();
+        this.entry.putLong(0, offset);
+        this.writeFully(this.index, this.entry, recordNumber * INDEX_ENTRY_SIZE);
+    }
+
+    private void readFully(final FileChannel channel, final ByteBuffer buffer, long position) throws IOException {
+        ((Buffer) buffer).clear();
+        while (buffer.hasRemaining()) {
+            final int read = channel.read(buffer, position);
+            if (read == -1)
+                throw new EOFException("Record is truncated");
+            position += read;
+        }
+    }
+
+    private void writeFully(final FileChannel channel, final ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining())
+            position += channel.write(buffer, position);
+    }
+
+    /**
+     * Enable the feature for the records appended later
+     * @param feature the feature
+     * @return this record log
+     */
+    public synchronized FocessRecordLog enable(final SerializationFeature feature) {
+        this.writer.enable(feature);
+        return this;
+    }
+
+    /**
+     * Append the object as a new record
+     * @param o the object
+     * @return the record number of the new record
+     * @throws IOException if an I/O error occurs
+     *
+     * @throws SerializationException if the object can not be serialized
+     */
+    public synchronized long append(@Nullable final Object o) throws IOException {
+        this.writer.reset();
+        this.writer.write(o);
+        final int length = this.writer.size();
+        ((Buffer) this.header).clear();
+        this.header.putInt(0, length);
+        this.header.putInt(4, this.crc(this.writer.buffer, length));
+        this.writeFully(this.log, this.header, this.end);
+        this.writeFully(this.log, ByteBuffer.wrap(this.writer.buffer, 0, length), this.end + HEADER_SIZE);
+        this.writeIndexEntry(this.size, this.end);
+        this.end += HEADER_SIZE + length;
+        return this.size++;
+    }
+
+    /**
+     * Read the record
+     * @param recordNumber the record number
+     * @return the object of the record
+     * @throws IOException if an I/O error occurs
+     *
+     * @throws IndexOutOfBoundsException if there is no such record
+     * @throws SerializationParseException if the record is not correct
+     */
+    @Nullable
+    public synchronized Object read(final long recordNumber) throws IOException {
+        if (recordNumber < 0 || recordNumber >= this.size)
+            throw new IndexOutOfBoundsException("Record " + recordNumber + " out of bounds for size " + this.size);
+        final long offset = this.offset(recordNumber);
+        this.readFully(this.log, this.header, offset);
+        final int length = this.header.getInt(0);
+        if (length <= 0 || this.end - offset - HEADER_SIZE < length)
+            throw new SerializationParseException("Record length is not correct");
+        final byte[] frame = new byte[length];
+        this.readFully(this.log, ByteBuffer.wrap(frame), offset + HEADER_SIZE);
+        if (this.crc(frame, length) != this.header.getInt(4))
+            throw new SerializationParseException("Record checksum is not correct");
+        return this.reader.wrap(frame).read();
+    }
+
+    /**
+     * Get the number of records
+     * @return the number of records
+     */
+    public synchronized long size() {
+        return this.size;
+    }
+
+    /**
+     * Force the appended records and their index entries to the storage device
+     * @throws IOException if an I/O error occurs
+     */
+    public synchronized void sync() throws IOException {
+        this.log.force(false);
+        this.index.force(false);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            this.log.close();
+        } finally {
+            this.index.close();
+        }
+    }
+}
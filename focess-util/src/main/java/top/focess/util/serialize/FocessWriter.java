@@ -1,5 +1,6 @@
 package top.focess.util.serialize;
 
+import com.google.common.collect.Maps;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
@@ -16,6 +17,9 @@ public abstract class FocessWriter {
 
     /**
      * New a FocessWriter with given output stream
+     * <p>
+     * The output stream is closed once the first object is written, even if the write fails.
+     * A failed write may leave part of the frame in the output stream, because the frame is flushed while it is written.
      * @param outputStream the given output stream
      * @return the FocessWriter with given output stream
      *
@@ -24,23 +28,14 @@ public abstract class FocessWriter {
     @NotNull
     @Contract("_ -> new")
     public static FocessWriter newFocessWriter(final OutputStream outputStream) {
-        return new SimpleFocessWriter() {
-
-            @Override
-            public void write(final Object o) {
-                super.write(o);
-                try {
-                    outputStream.write(this.toByteArray());
-                    outputStream.flush();
-                    outputStream.close();
-                } catch (final IOException e) {
-                    throw new IllegalStateException(e);
-                }
-            }
-        };
+        return newFocessWriter(outputStream, Maps.newHashMap());
     }
+
     /**
      * New a FocessWriter with given output stream and writer map
+     * <p>
+     * The output stream is closed once the first object is written, even if the write fails.
+     * A failed write may leave part of the frame in the output stream, because the frame is flushed while it is written.
      * @param outputStream the given output stream
      * @param writerMap the given writer map
      * @return the FocessWriter with given output stream and writer map
@@ -50,14 +45,24 @@ public abstract class FocessWriter {
     @NotNull
     @Contract("_,_ -> new")
     public static FocessWriter newFocessWriter(final OutputStream outputStream, final Map<Class<?>, SimpleFocessWriter.Writer<?>> writerMap) {
-        return new SimpleFocessWriter(writerMap) {
+        return new StreamingFocessWriter(outputStream, writerMap) {
             @Override
             public void write(final Object o) {
-                super.write(o);
                 try {
-                    outputStream.write(this.toByteArray());
-                    outputStream.flush();
-                    outputStream.close();
+                    super.write(o);
+                } catch (final RuntimeException e) {
+                    // drop the buffered rest of the failed frame, and only release the stream
+                    this.position = 0;
+                    this.openSlots = 0;
+                    try {
+                        this.close();
+                    } catch (final IOException suppressed) {
+                        e.addSuppressed(suppressed);
+                    }
+                    throw e;
+                }
+                try {
+                    this.close();
                 } catch (final IOException e) {
                     throw new IllegalStateException(e);
                 }
@@ -0,0 +1,21 @@
+package top.focess.util.serialize;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a FocessSerializable class whose serializer should be generated at compile time by the focess-util-processor annotation processor.
+ * <p>
+ * The generated serializer accesses the fields directly, so the serialized fields must not be private or final, and the class must have a non-private no-arg constructor.
+ * It is only used when {@link FocessSerializable#serialize()} returns null.
+ * @deprecated FocessUtil is no longer maintained. Do not use.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+@Deprecated(forRemoval = true, since = "1.1.25")
+public @interface GenerateSerializer {
+}
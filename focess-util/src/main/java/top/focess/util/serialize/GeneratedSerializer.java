@@ -0,0 +1,34 @@
+package top.focess.util.serialize;
+
+/**
+ * Represents a serializer generated at compile time for a class marked with {@link GenerateSerializer}.
+ * <p>
+ * The generated class is named after the binary name of the serialized class with the suffix {@value #SUFFIX}.
+ * @param <T> the type of the serialized class
+ * @deprecated FocessUtil is no longer maintained. Do not use.
+ */
+@Deprecated(forRemoval = true, since = "1.1.25")
+public interface GeneratedSerializer<T> {
+
+    String SUFFIX = "$$FocessSerializer";
+
+    /**
+     * Get the number of serialized fields
+     * @return the number of serialized fields
+     */
+    int size();
+
+    /**
+     * Write all the serialized fields of the object in declaration order
+     * @param t the object
+     * @param writer the writer
+     */
+    void write(T t, FocessWriter writer);
+
+    /**
+     * Create a new object and read all the serialized fields in declaration order
+     * @param reader the reader
+     * @return the new object
+     */
+    T read(FocessReader reader);
+}
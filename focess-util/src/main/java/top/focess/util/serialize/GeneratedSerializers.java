@@ -0,0 +1,38 @@
+package top.focess.util.serialize;
+
+/**
+ * Finds the serializers generated for the classes marked with {@link GenerateSerializer}, once per class.
+ * @deprecated FocessUtil is no longer maintained. Do not use.
+ */
+@Deprecated(forRemoval = true, since = "1.1.25")
+final class GeneratedSerializers {
+
+    private static final ClassValue<GeneratedSerializer<?>> CACHE = new ClassValue<GeneratedSerializer<?>>() {
+        @Override
+        protected GeneratedSerializer<?> computeValue(final Class<?> type) {
+            if (!type.isAnnotationPresent(GenerateSerializer.class))
+                return null;
+            try {
+                final Class<?> cls = Class.forName(type.getName() + GeneratedSerializer.SUFFIX, true, type.getClassLoader());
+                return (GeneratedSerializer<?>) cls.getConstructor().newInstance();
+            } catch (final ClassNotFoundException e) {
+                // the annotation processor is not in use
+                return null;
+            } catch (final ReflectiveOperationException e) {
+                throw new SerializationException(e);
+            }
+        }
+    };
+
+    private GeneratedSerializers() {}
+
+    /**
+     * Get the generated serializer of the class
+     * @param cls the class
+     * @param <T> the type of the class
+     * @return the generated serializer, or null if there is no generated serializer for the class
+     */
+    static <T> GeneratedSerializer<T> get(final Class<T> cls) {
+        return (GeneratedSerializer<T>) CACHE.get(cls);
+    }
+}
@@ -0,0 +1,236 @@
+package top.focess.util.serialize;
+
+import com.google.common.collect.Maps;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+
+/**
+ * This class is used to deserialize FocessSerializable-Object from a memory-mapped file.
+ * <p>
+ * The file is mapped in chunks of at most 1 GB, and all the values are decoded straight from the mapping without copying the file into the heap.
+ * @deprecated FocessUtil is no longer maintained. Do not use.
+ */
+@Deprecated(forRemoval = true, since = "1.1.25")
+public class MappedFocessReader extends SimpleFocessReader {
+
+    private static final int CHUNK_SHIFT = 30;
+
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private final ByteBuffer[] chunks;
+
+    private final long size;
+
+    private long position;
+
+    public MappedFocessReader(final Path path) throws IOException {
+        this(path, Maps.newHashMap());
+    }
+
+    public MappedFocessReader(final Path path, final Map<Class<?>, Reader<?>> readerMap) throws IOException {
+        super(new byte[0], readerMap);
+        try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            this.size = channel.size();
+            this.chunks = new ByteBuffer[(int) ((this.size + CHUNK_MASK) >>> CHUNK_SHIFT)];
+            for (int i = 0; i < this.chunks.length; i++) {
+                final long start = (long) i << CHUNK_SHIFT;
+                this.chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(CHUNK_SIZE, this.size - start)).order(ByteOrder.LITTLE_ENDIAN);
+            }
+        }
+    }
+
+    private MappedFocessReader(final MappedFocessReader reader) {
+        super(new byte[0], reader.readerMap);
+        this.chunks = reader.chunks;
+        this.size = reader.size;
+    }
+
+    /**
+     * Get the current position in the file
+     * @return the current position in the file
+     */
+    public long getPosition() {
+        return this.position;
+    }
+
+    /**
+     * Set the current position in the file
+     * @param position the new position
+     */
+    public void setPosition(final long position) {
+        if (position < 0 || position > this.size)
+            throw new IllegalArgumentException("Position is out of range");
+        this.position = position;
+    }
+
+    /**
+     * The forked reader shares the mapping of this reader
+     */
+    @Override
+    protected SimpleFocessReader fork() {
+        return new MappedFocessReader(this);
+    }
+
+    @Override
+    protected long tell() {
+        return this.position;
+    }
+
+    @Override
+    protected void seek(final long position) {
+        this.setPosition(position);
+    }
+
+    /**
+     * The bytes are read from the mapped file
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public SimpleFocessReader wrap(final byte[] bytes, final int offset, final int length) {
+        throw new UnsupportedOperationException("MappedFocessReader can not read from a byte array");
+    }
+
+    @Override
+    protected void ensureReadable(final int n) {
+        if (this.size - this.position < n)
+            throw new SerializationParseException("Read over");
+    }
+
+    @Override
+    protected void skipBytes(final int n) {
+        this.ensureReadable(n);
+        this.position += n;
+    }
+
+    @Override
+    protected boolean hasRemaining() {
+        return this.position < this.size;
+    }
+
+    @Override
+    protected void readBytes(final byte[] bytes, int offset, int length) {
+        this.ensureReadable(length);
+        while (length > 0) {
+            final ByteBuffer chunk = this.chunks[(int) (this.position >>> CHUNK_SHIFT)];
+            final int index = (int) (this.position & CHUNK_MASK);
+            final int count = Math.min(length, chunk.limit() - index);
+            // use a duplicate to keep the shared chunk position untouched
+            final ByteBuffer duplicate = chunk.duplicate();
+            ((Buffer) duplicate).position(index);
+            duplicate.get(bytes, offset, count);
+            this.position += count;
+            offset += count;
+            length -= count;
+        }
+    }
+
+    @Override
+    protected ByteBuffer readView(final int count, final int size) {
+        this.ensureReadable(size);
+        final ByteBuffer chunk = this.chunks[(int) (this.position >>> CHUNK_SHIFT)];
+        final int index = (int) (this.position & CHUNK_MASK);
+        final int available = chunk.limit() - index;
+        if (available < size) {
+            // the element crosses a chunk boundary
+            final byte[] bytes = new byte[size];
+            this.readBytes(bytes, 0, size);
+            return ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        }
+        final int length = Math.min(count, available / size) * size;
+        final ByteBuffer view = chunk.duplicate();
+        ((Buffer) view).position(index);
+        ((Buffer) view).limit(index + length);
+        this.position += length;
+        return view.slice().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    @Override
+    protected ByteBuffer readSlice(final int length) {
+        final ByteBuffer chunk = this.chunk(length);
+        if (chunk == null) {
+            // the bytes cross a chunk boundary
+            final byte[] bytes = new byte[length];
+            this.readBytes(bytes, 0, length);
+            return ByteBuffer.wrap(bytes);
+        }
+        final int index = (int) (this.position & CHUNK_MASK);
+        final ByteBuffer slice = chunk.duplicate();
+        ((Buffer) slice).position(index);
+        ((Buffer) slice).limit(index + length);
+        this.position += length;
+        return slice.slice();
+    }
+
+    /**
+     * Get the chunk containing the next n bytes, or null if they cross a chunk boundary
+     */
+    private ByteBuffer chunk(final int n) {
+        this.ensureReadable(n);
+        final ByteBuffer chunk = this.chunks[(int) (this.position >>> CHUNK_SHIFT)];
+        return (this.position & CHUNK_MASK) + n <= chunk.limit() ? chunk : null;
+    }
+
+    @Override
+    public byte readByte() {
+        final byte v = this.chunk(1).get((int) (this.position & CHUNK_MASK));
+        this.position++;
+        return v;
+    }
+
+    @Override
+    protected short readFixedShort() {
+        final ByteBuffer chunk = this.chunk(2);
+        if (chunk == null)
+            return (short) ((this.readByte() & 0xFF) | (this.readByte() & 0xFF) << 8);
+        final short v = chunk.getShort((int) (this.position & CHUNK_MASK));
+        this.position += 2;
+        return v;
+    }
+
+    @Override
+    protected int readFixedInt() {
+        final ByteBuffer chunk = this.chunk(4);
+        if (chunk == null)
+            return (this.readFixedShort() & 0xFFFF) | (this.readFixedShort() & 0xFFFF) << 16;
+        final int v = chunk.getInt((int) (this.position & CHUNK_MASK));
+        this.position += 4;
+        return v;
+    }
+
+    @Override
+    protected long readFixedLong() {
+        final ByteBuffer chunk = this.chunk(8);
+        if (chunk == null)
+            return (this.readFixedInt() & 0xFFFFFFFFL) | (long) this.readFixedInt() << 32;
+        final long v = chunk.getLong((int) (this.position & CHUNK_MASK));
+        this.position += 8;
+        return v;
+    }
+
+    @Override
+    public String readString() {
+        final int length = this.readLength();
+        if (length == 0)
+            return "";
+        final ByteBuffer chunk = this.chunk(length);
+        if (chunk == null) {
+            final byte[] bytes = new byte[length];
+            this.readBytes(bytes, 0, length);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+        final String v = this.decodeUTF8(chunk, (int) (this.position & CHUNK_MASK), length);
+        this.position += length;
+        return v;
+    }
+}
@@ -0,0 +1,57 @@
+package top.focess.util.serialize;
+
+/**
+ * @deprecated FocessUtil is no longer maintained. Do not use.
+ */
+@Deprecated(forRemoval = true, since = "1.1.25")
+class Opcodes {
+    public static final byte C_BYTE = 0;
+    public static final byte C_SHORT = 1;
+    public static final byte C_INT = 2;
+    public static final byte C_LONG = 3;
+    public static final byte C_FLOAT = 4;
+    public static final byte C_DOUBLE = 5;
+    public static final byte C_BOOLEAN = 6;
+    public static final byte C_CHAR = 7;
+    public static final byte C_STRING = 8;
+    public static final byte C_OBJECT = 9;
+    public static final byte C_ARRAY = 10;
+    public static final byte C_NULL = 11;
+    public static final byte C_FSERIALIZABLE = 12;
+    public static final byte C_FIELD = 13;
+    public static final byte C_RESERVED = 14;
+    public static final byte C_ENUM = 15;
+    public static final byte C_SERIALIZABLE = 16;
+    public static final byte C_START = 20;
+    public static final byte C_END = 21;
+    public static final byte C_HEADER = 22;
+    public static final byte C_STRING_REF = 23;
+    public static final byte C_GENERATED = 24;
+    public static final byte C_BYTES = 25;
+    public static final byte C_SHORTS = 26;
+    public static final byte C_INTS = 27;
+    public static final byte C_LONGS = 28;
+    public static final byte C_FLOATS = 29;
+    public static final byte C_DOUBLES = 30;
+    public static final byte C_BOOLEANS = 31;
+    public static final byte C_CHARS = 32;
+    public static final byte C_LIST = 33;
+    public static final byte C_SET = 34;
+    public static final byte C_MAP = 35;
+    public static final byte C_REFERENCE = 36;
+    public static final byte C_BATCH = 37;
+    public static final byte C_SIZED = 38;
+    public static final byte C_REGISTERED = 39;
+    /**
+     * A Java serialization payload written as a fixed-size length and the raw bytes with {@link SerializationFeature#RAW_SERIALIZABLE},
+     * while the C_SERIALIZABLE payload written without it is a nested byte[] value
+     */
+    public static final byte C_RAW_SERIALIZABLE = 40;
+
+    /**
+     * The kinds of the native collections, written after C_LIST, C_SET and C_MAP
+     */
+    public static final byte K_HASH = 0;
+    public static final byte K_LINKED = 1;
+    public static final byte K_SORTED = 2;
+}
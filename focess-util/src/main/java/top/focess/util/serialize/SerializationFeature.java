@@ -0,0 +1,83 @@
+package top.focess.util.serialize;
+
+/**
+ * Represents an optional feature of the binary format written by {@link SimpleFocessWriter}.
+ * <p>
+ * The enabled features are recorded in the header of every frame, so {@link SimpleFocessReader} detects them automatically.
+ * A frame without any feature enabled has no header and keeps the original layout of 1.1.24, unless it contains objects of the classes
+ * marked with {@link GenerateSerializer} or registered in {@link ClassRegistry}, which can not be read by 1.1.24.
+ * {@link SimpleFocessReader} reads the frames written in the original layout as well.
+ * @deprecated FocessUtil is no longer maintained. Do not use.
+ */
+@Deprecated(forRemoval = true, since = "1.1.25")
+public enum SerializationFeature {
+
+    /**
+     * Write lengths as LEB128 varints, and int, long and short values as zigzag varints
+     */
+    COMPACT(1),
+
+    /**
+     * Write every class name only once per frame, and refer to it by its id afterwards
+     */
+    CLASS_TABLE(2),
+
+    /**
+     * Write every string value, field name and enum name only once per frame, and refer to it by its id afterwards
+     * <p>
+     * Repeated strings are decoded as the same instance.
+     */
+    STRING_TABLE(4),
+
+    /**
+     * Write every object other than boxed primitives, strings and enums only once per frame, and refer to it by its id afterwards
+     * <p>
+     * Shared objects are decoded as shared, and cycles are supported unless they pass through a FocessSerializable with a serialize method,
+     * a generated serializer or a custom writer, which are only constructed after their content has been read.
+     */
+    REFERENCES(8),
+
+    /**
+     * Prefix every value other than boxed primitives, strings and enums with its length in bytes,
+     * so that {@link SimpleFocessReader#skipObject()} and {@link SimpleFocessReader#read(String...)} jump over it without decoding it.
+     * <p>
+     * The values are only skipped without decoding when neither the tables nor the references are enabled, because those must see every value.
+     * A streaming writer keeps the whole outermost prefixed value in its buffer until its length is known.
+     */
+    LENGTH_PREFIX(16),
+
+    /**
+     * Write primitive arrays with their own type codes and packed elements, instead of the component class name and one boxed value per element
+     */
+    PRIMITIVE_ARRAYS(32),
+
+    /**
+     * Write {@link java.util.ArrayList}, {@link java.util.LinkedList}, {@link java.util.HashSet}, {@link java.util.LinkedHashSet}, {@link java.util.HashMap},
+     * {@link java.util.LinkedHashMap}, and naturally ordered {@link java.util.TreeSet} and {@link java.util.TreeMap} with their own type codes and their elements,
+     * instead of Java serialization
+     */
+    COLLECTIONS(64),
+
+    /**
+     * Write the Java serialization payload of {@link java.io.Serializable} values as raw bytes prefixed with their fixed-size length,
+     * instead of a nested byte array value
+     */
+    RAW_SERIALIZABLE(128);
+
+    private final int mask;
+
+    SerializationFeature(final int mask) {
+        this.mask = mask;
+    }
+
+    int getMask() {
+        return this.mask;
+    }
+
+    static int masks() {
+        int masks = 0;
+        for (final SerializationFeature feature : values())
+            masks |= feature.mask;
+        return masks;
+    }
+}
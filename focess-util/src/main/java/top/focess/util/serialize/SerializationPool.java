@@ -0,0 +1,177 @@
+package top.focess.util.serialize;
+
+import com.google.common.collect.Maps;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Map;
+
+/**
+ * A pool of reusable writers and readers, one of each per thread, for encoding and decoding many small messages.
+ * <p>
+ * The pooled writer keeps its buffer between messages, unless it has grown beyond the retained capacity.
+ * A nested call from a custom writer or reader on the same thread uses a temporary instance instead of the pooled one.
+ * @deprecated FocessUtil is no longer maintained. Do not use.
+ */
+@Deprecated(forRemoval = true, since = "1.1.25")
+public class SerializationPool {
+
+    private static final int DEFAULT_RETAINED_CAPACITY = 1 << 20;
+
+    private static final byte[] EMPTY = new byte[0];
+
+    private final Map<Class<?>, SimpleFocessWriter.Writer<?>> writerMap = Maps.newHashMap();
+
+    private final Map<Class<?>, SimpleFocessReader.Reader<?>> readerMap = Maps.newHashMap();
+
+    private final SerializationFeature[] features;
+
+    private final int retainedCapacity;
+
+    private final ThreadLocal<Entry> entries = ThreadLocal.withInitial(Entry::new);
+
+    public SerializationPool(final SerializationFeature... features) {
+        this(Maps.newHashMap(), Maps.newHashMap(), DEFAULT_RETAINED_CAPACITY, features);
+    }
+
+    /**
+     * Create a pool
+     * @param writerMap the writer map of the pooled writers
+     * @param readerMap the reader map of the pooled readers
+     * @param retainedCapacity the maximum buffer capacity a pooled writer keeps after a message
+     * @param features the features enabled in the pooled writers
+     */
+    public SerializationPool(final Map<Class<?>, SimpleFocessWriter.Writer<?>> writerMap, final Map<Class<?>, SimpleFocessReader.Reader<?>> readerMap, final int retainedCapacity, final SerializationFeature... features) {
+        if (retainedCapacity <= 0)
+            throw new IllegalArgumentException("Retained capacity must be positive");
+        this.writerMap.putAll(writerMap);
+        this.readerMap.putAll(readerMap);
+        this.retainedCapacity = retainedCapacity;
+        this.features = features.clone();
+    }
+
+    private SimpleFocessWriter newWriter() {
+        final SimpleFocessWriter writer = new SimpleFocessWriter(this.writerMap);
+        for (final SerializationFeature feature : this.features)
+            writer.enable(feature);
+        return writer;
+    }
+
+    /**
+     * Serialize the object with the writer of the current thread
+     * @param o the object
+     * @return the serialized bytes
+     *
+     * @throws SerializationException if the object can not be serialized
+     * @see #serialize(Object, OutputStream)
+     * @see #serialize(Object, ByteBuffer)
+     */
+    public byte[] serialize(@Nullable final Object o) {
+        final Entry entry = this.entries.get();
+        final SimpleFocessWriter writer = this.acquire(entry);
+        try {
+            writer.write(o);
+            return writer.toByteArray();
+        } finally {
+            this.release(entry, writer);
+        }
+    }
+
+    /**
+     * Serialize the object with the writer of the current thread, and write the bytes from its buffer to the output stream without copying them
+     * @param o the object
+     * @param outputStream the output stream
+     * @return the number of written bytes
+     * @throws IOException if an I/O error occurs
+     *
+     * @throws SerializationException if the object can not be serialized
+     */
+    public int serialize(@Nullable final Object o, final OutputStream outputStream) throws IOException {
+        final Entry entry = this.entries.get();
+        final SimpleFocessWriter writer = this.acquire(entry);
+        try {
+            writer.write(o);
+            writer.writeTo(outputStream);
+            return writer.size();
+        } finally {
+            this.release(entry, writer);
+        }
+    }
+
+    /**
+     * Serialize the object with the writer of the current thread, and put the bytes from its buffer into the target buffer without copying them first
+     * @param o the object
+     * @param target the target buffer, whose position is advanced by the number of written bytes
+     * @return the number of written bytes
+     *
+     * @throws SerializationException if the object can not be serialized
+     * @throws java.nio.BufferOverflowException if the remaining space of the target buffer is not enough, the target buffer is not changed
+     */
+    public int serialize(@Nullable final Object o, final ByteBuffer target) {
+        final Entry entry = this.entries.get();
+        final SimpleFocessWriter writer = this.acquire(entry);
+        try {
+            writer.write(o);
+            target.put(writer.buffer, 0, writer.size());
+            return writer.size();
+        } finally {
+            this.release(entry, writer);
+        }
+    }
+
+    private SimpleFocessWriter acquire(final Entry entry) {
+        if (entry.writing)
+            return this.newWriter();
+        if (entry.writer == null)
+            entry.writer = this.newWriter();
+        entry.writing = true;
+        return entry.writer;
+    }
+
+    private void release(final Entry entry, final SimpleFocessWriter writer) {
+        // a temporary writer of a nested call is dropped
+        if (writer != entry.writer)
+            return;
+        entry.writing = false;
+        if (writer.buffer.length > this.retainedCapacity)
+            entry.writer = null;
+        else writer.reset();
+    }
+
+    /**
+     * Deserialize the first frame of the bytes with the reader of the current thread
+     * @param bytes the serialized bytes
+     * @return the deserialized object
+     *
+     * @throws SerializationParseException if the bytes can not be deserialized
+     */
+    @Nullable
+    public Object deserialize(final byte[] bytes) {
+        final Entry entry = this.entries.get();
+        if (entry.reading)
+            return new SimpleFocessReader(bytes, this.readerMap).read();
+        if (entry.reader == null)
+            entry.reader = new SimpleFocessReader(bytes, this.readerMap);
+        entry.reading = true;
+        try {
+            return entry.reader.wrap(bytes).read();
+        } finally {
+            entry.reading = false;
+            // do not keep the bytes alive until the next message
+            entry.reader.wrap(EMPTY);
+        }
+    }
+
+    private static class Entry {
+
+        private SimpleFocessWriter writer;
+
+        private boolean writing;
+
+        private SimpleFocessReader reader;
+
+        private boolean reading;
+    }
+}
@@ -0,0 +1,1313 @@
+package top.focess.util.serialize;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.lang.reflect.Array;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.ShortBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static top.focess.util.serialize.Opcodes.*;
+
+/**
+ * @deprecated FocessUtil is no longer maintained. Do not use.
+ */
+@Deprecated(forRemoval = true, since = "1.1.25")
+public class SimpleFocessReader extends FocessReader {
+
+    private static ClassFinder DEFAULT_CLASS_FINDER = new CachingClassFinder(Class::forName);
+
+    private static final Map<Class<?>, Reader<?>> CLASS_READER_MAP = Maps.newHashMap();
+
+    /**
+     * The largest string whose bytes are copied into the reused {@link #scratch} array
+     */
+    private static final int SCRATCH_SIZE = 8192;
+
+    static {
+
+        CLASS_READER_MAP.put(Class.class, (Reader<Class>) (t, reader) -> {
+            try {
+                final String cls = reader.readString();
+                switch (cls) {
+                    case "byte":
+                        return byte.class;
+                    case "short":
+                        return short.class;
+                    case "int":
+                        return int.class;
+                    case "long":
+                        return long.class;
+                    case "float":
+                        return float.class;
+                    case "double":
+                        return double.class;
+                    case "boolean":
+                        return boolean.class;
+                    case "char":
+                        return char.class;
+                    case "void":
+                        return void.class;
+                    default:
+                        return DEFAULT_CLASS_FINDER.forName(cls);
+                }
+            } catch (final ClassNotFoundException e) {
+                throw new SerializationParseException(e);
+            }
+        });
+    }
+
+    final Map<Class<?>, Reader<?>> readerMap = Maps.newHashMap();
+
+    /**
+     * The bytes to read, only the bytes between {@link #pointer} and {@link #limit} are readable
+     */
+    protected byte[] bytes;
+
+    /**
+     * The index of the next byte to be read in {@link #bytes}
+     */
+    protected int pointer;
+
+    /**
+     * The index after the last readable byte in {@link #bytes}
+     */
+    protected int limit;
+
+    /**
+     * The index of the first byte of the source in {@link #bytes}, which the positions of {@link #seek(long)} are relative to
+     */
+    private int start;
+
+    /**
+     * The reused array holding the bytes of a string in a buffer which is not backed by an array, created on first use
+     */
+    private byte[] scratch;
+
+    /**
+     * The masks of the features enabled in the current frame
+     */
+    protected int features;
+
+    private boolean compact;
+
+    private boolean classTable;
+
+    /**
+     * The classes defined in the current frame, indexed by their ids
+     */
+    private final List<Class<?>> classes = Lists.newArrayList();
+
+    private boolean stringTable;
+
+    /**
+     * The strings read in the current frame, indexed by their ids
+     */
+    private final List<String> strings = Lists.newArrayList();
+
+    private boolean references;
+
+    /**
+     * The objects read in the current frame, indexed by their ids, the slot of an object is null until it is constructed
+     */
+    private final List<Object> objects = Lists.newArrayList();
+
+    public SimpleFocessReader(final byte[] bytes, final Map<Class<?>, Reader<?>> readerMap) {
+        this.bytes = bytes;
+        this.pointer = 0;
+        this.limit = bytes.length;
+        this.readerMap.putAll(readerMap);
+    }
+
+    protected SimpleFocessReader(final byte[] bytes) {
+        this.bytes = bytes;
+        this.pointer = 0;
+        this.limit = bytes.length;
+    }
+
+    /**
+     * Read the given bytes from the beginning, so that this reader can be reused for another message.
+     * The reader map is kept.
+     * @param bytes the bytes to read
+     * @return this reader
+     */
+    public SimpleFocessReader wrap(final byte[] bytes) {
+        return this.wrap(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Read the given range of the bytes from the beginning, so that this reader can be reused for another message.
+     * The reader map is kept.
+     * @param bytes the bytes to read
+     * @param offset the start offset in the bytes
+     * @param length the number of bytes to read
+     * @return this reader
+     */
+    public SimpleFocessReader wrap(final byte[] bytes, final int offset, final int length) {
+        if (offset < 0 || length < 0 || offset > bytes.length - length)
+            throw new IndexOutOfBoundsException("Range [" + offset + ", " + offset + " + " + length + ") out of bounds for length " + bytes.length);
+        this.bytes = bytes;
+        this.pointer = offset;
+        this.start = offset;
+        this.limit = offset + length;
+        this.classes.clear();
+        this.strings.clear();
+        this.objects.clear();
+        this.setFeatures(0);
+        return this;
+    }
+
+    public static ClassFinder getDefaultClassFinder() {
+        return DEFAULT_CLASS_FINDER;
+    }
+
+    public static void setDefaultClassFinder(ClassFinder defaultClassFinder) {
+        DEFAULT_CLASS_FINDER = defaultClassFinder;
+    }
+
+    /**
+     * Make sure there are at least n readable bytes between {@link #pointer} and {@link #limit}
+     * @param n the number of bytes going to be read
+     *
+     * @throws SerializationParseException if there are not enough bytes
+     */
+    protected void ensureReadable(final int n) {
+        if (this.limit - this.pointer < n)
+            throw new SerializationParseException("Read over");
+    }
+
+    /**
+     * Indicate whether there are more bytes to read
+     * @return true if there are more bytes to read, false otherwise
+     */
+    protected boolean hasRemaining() {
+        return this.pointer < this.limit;
+    }
+
+    /**
+     * Read the raw bytes into the given array
+     * @param bytes the given array
+     * @param offset the start offset in the given array
+     * @param length the number of bytes to read
+     *
+     * @throws SerializationParseException if there are not enough bytes
+     */
+    protected void readBytes(final byte[] bytes, final int offset, final int length) {
+        this.ensureReadable(length);
+        System.arraycopy(this.bytes, this.pointer, bytes, offset, length);
+        this.pointer += length;
+    }
+
+    /**
+     * Skip the next n bytes
+     * @param n the number of bytes to skip
+     *
+     * @throws SerializationParseException if there are not enough bytes
+     */
+    protected void skipBytes(int n) {
+        while (n > 0) {
+            if (this.pointer == this.limit)
+                this.ensureReadable(1);
+            final int skipped = Math.min(n, this.limit - this.pointer);
+            this.pointer += skipped;
+            n -= skipped;
+        }
+    }
+
+    /**
+     * Get the next bytes as a view, which shares the memory of the source when possible
+     * @param length the number of bytes
+     * @return the view of the bytes, which must not be modified
+     *
+     * @throws SerializationParseException if there are not enough bytes
+     */
+    protected ByteBuffer readSlice(final int length) {
+        this.ensureReadable(length);
+        final ByteBuffer slice = ByteBuffer.wrap(this.bytes, this.pointer, length).slice();
+        this.pointer += length;
+        return slice;
+    }
+
+    private static InputStream newInputStream(final ByteBuffer buffer) {
+        if (buffer.hasArray())
+            return new ByteArrayInputStream(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+        return new InputStream() {
+            @Override
+            public int read() {
+                return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+            }
+
+            @Override
+            public int read(final byte[] bytes, final int offset, final int length) {
+                if (length == 0)
+                    return 0;
+                if (!buffer.hasRemaining())
+                    return -1;
+                final int n = Math.min(length, buffer.remaining());
+                buffer.get(bytes, offset, n);
+                return n;
+            }
+
+            @Override
+            public int available() {
+                return buffer.remaining();
+            }
+        };
+    }
+
+    /**
+     * Read a byte array as a read-only view, without copying it if the bytes of the source can be shared.
+     * <p>
+     * The view shares the memory of a byte array or a mapped file, so it must not be used after the source is modified or released.
+     * A streaming reader returns a copy, because its buffer is reused, and so does any reader for a byte array written without {@link SerializationFeature#PRIMITIVE_ARRAYS}.
+     * @return the view of the byte array, or null if the value is null
+     *
+     * @throws SerializationParseException if the value is not a byte array
+     */
+    @Nullable
+    public ByteBuffer readByteBuffer() {
+        byte type = this.readByte();
+        if (type == C_SIZED) {
+            this.readFixedInt();
+            type = this.readByte();
+        }
+        // a tracked array must be registered, so it is decoded as usual
+        if (type == C_BYTES && !this.references)
+            return this.readSlice(this.readLength()).asReadOnlyBuffer();
+        final Object o = this.readObject(type);
+        if (o == null)
+            return null;
+        if (!(o instanceof byte[]))
+            throw new SerializationParseException("Value is not a byte array");
+        return ByteBuffer.wrap((byte[]) o).asReadOnlyBuffer();
+    }
+
+    /**
+     * Indicate whether the feature is enabled in the current frame
+     * @param feature the feature
+     * @return true if the feature is enabled, false otherwise
+     */
+    public boolean isEnabled(final SerializationFeature feature) {
+        return (this.features & feature.getMask()) != 0;
+    }
+
+    private void setFeatures(final int features) {
+        if ((features & ~SerializationFeature.masks()) != 0)
+            throw new SerializationParseException("Unsupported features: " + features);
+        this.features = features;
+        this.compact = this.isEnabled(SerializationFeature.COMPACT);
+        this.classTable = this.isEnabled(SerializationFeature.CLASS_TABLE);
+        this.stringTable = this.isEnabled(SerializationFeature.STRING_TABLE);
+        this.references = this.isEnabled(SerializationFeature.REFERENCES);
+    }
+
+    /**
+     * Get a little-endian view of the next bytes for bulk reading, the view must be read completely
+     * @param count the maximum number of elements to read
+     * @param size the size of an element
+     * @return the view, which holds at least one element and at most count elements
+     *
+     * @throws SerializationParseException if there are not enough bytes
+     */
+    protected ByteBuffer readView(final int count, final int size) {
+        this.ensureReadable(size);
+        final int length = Math.min(count, (this.limit - this.pointer) / size) * size;
+        final ByteBuffer view = ByteBuffer.wrap(this.bytes, this.pointer, length).slice().order(ByteOrder.LITTLE_ENDIAN);
+        this.pointer += length;
+        return view;
+    }
+
+    public int readInt() {
+        if (this.compact) {
+            final int v = this.readVarInt();
+            return v >>> 1 ^ -(v & 1);
+        }
+        return this.readFixedInt();
+    }
+
+    public long readLong() {
+        if (this.compact) {
+            final long v = this.readVarLong();
+            return v >>> 1 ^ -(v & 1);
+        }
+        return this.readFixedLong();
+    }
+
+    /**
+     * Read a length or a count, which is never negative
+     * @return the length
+     *
+     * @throws SerializationParseException if the length is negative
+     */
+    protected int readLength() {
+        final int length = this.compact ? this.readVarInt() : this.readFixedInt();
+        if (length < 0)
+            throw new SerializationParseException("Length is not correct");
+        return length;
+    }
+
+    protected int readFixedInt() {
+        this.ensureReadable(4);
+        final byte[] bytes = this.bytes;
+        final int p = this.pointer;
+        this.pointer = p + 4;
+        return (bytes[p] & 0xFF)
+                | (bytes[p + 1] & 0xFF) << 8
+                | (bytes[p + 2] & 0xFF) << 16
+                | (bytes[p + 3] & 0xFF) << 24;
+    }
+
+    protected long readFixedLong() {
+        this.ensureReadable(8);
+        final byte[] bytes = this.bytes;
+        final int p = this.pointer;
+        this.pointer = p + 8;
+        return (bytes[p] & 0xFFL)
+                | (bytes[p + 1] & 0xFFL) << 8
+                | (bytes[p + 2] & 0xFFL) << 16
+                | (bytes[p + 3] & 0xFFL) << 24
+                | (bytes[p + 4] & 0xFFL) << 32
+                | (bytes[p + 5] & 0xFFL) << 40
+                | (bytes[p + 6] & 0xFFL) << 48
+                | (bytes[p + 7] & 0xFFL) << 56;
+    }
+
+    protected short readFixedShort() {
+        this.ensureReadable(2);
+        final int p = this.pointer;
+        this.pointer = p + 2;
+        return (short) ((this.bytes[p] & 0xFF) | (this.bytes[p + 1] & 0xFF) << 8);
+    }
+
+    /**
+     * Read an unsigned LEB128 varint
+     * @return the int
+     *
+     * @throws SerializationParseException if the varint is too long
+     */
+    protected int readVarInt() {
+        int r = 0;
+        if (this.limit - this.pointer >= 5) {
+            final byte[] bytes = this.bytes;
+            int p = this.pointer;
+            for (int shift = 0; shift < 35; shift += 7) {
+                final byte b = bytes[p++];
+                r |= (b & 0x7F) << shift;
+                if (b >= 0) {
+                    this.pointer = p;
+                    return r;
+                }
+            }
+            throw new SerializationParseException("Varint is too long");
+        }
+        for (int shift = 0; shift < 35; shift += 7) {
+            final byte b = this.readByte();
+            r |= (b & 0x7F) << shift;
+            if (b >= 0)
+                return r;
+        }
+        throw new SerializationParseException("Varint is too long");
+    }
+
+    /**
+     * Read an unsigned LEB128 varint
+     * @return the long
+     *
+     * @throws SerializationParseException if the varint is too long
+     */
+    protected long readVarLong() {
+        long r = 0;
+        for (int shift = 0; shift < 70; shift += 7) {
+            final byte b = this.readByte();
+            r |= (b & 0x7FL) << shift;
+            if (b >= 0)
+                return r;
+        }
+        throw new SerializationParseException("Varint is too long");
+    }
+
+    public String readString() {
+        final int length = this.readLength();
+        this.ensureReadable(length);
+        final String v = new String(this.bytes, this.pointer, length, StandardCharsets.UTF_8);
+        this.pointer += length;
+        return v;
+    }
+
+    /**
+     * Decode the UTF-8 bytes in the buffer with the same decoder as {@link #readString()}, malformed sequences are replaced with U+FFFD.
+     * <p>
+     * The bytes of a heap buffer are decoded in place, and the bytes of a direct buffer are copied into a reused array first.
+     * @param buffer the buffer
+     * @param index the index of the first byte in the buffer
+     * @param length the number of bytes
+     * @return the decoded string
+     */
+    protected String decodeUTF8(final ByteBuffer buffer, final int index, final int length) {
+        if (buffer.hasArray())
+            return new String(buffer.array(), buffer.arrayOffset() + index, length, StandardCharsets.UTF_8);
+        final byte[] bytes;
+        if (length > SCRATCH_SIZE)
+            bytes = new byte[length];
+        else if (this.scratch == null)
+            bytes = this.scratch = new byte[SCRATCH_SIZE];
+        else bytes = this.scratch;
+        final ByteBuffer duplicate = buffer.duplicate();
+        ((Buffer) duplicate).position(index);
+        duplicate.get(bytes, 0, length);
+        return new String(bytes, 0, length, StandardCharsets.UTF_8);
+    }
+
+    public float readFloat() {
+        return Float.intBitsToFloat(this.readFixedInt());
+    }
+
+    public double readDouble() {
+        return Double.longBitsToDouble(this.readFixedLong());
+    }
+
+    public byte readByte() {
+        this.ensureReadable(1);
+        return this.bytes[this.pointer++];
+    }
+
+    public short readShort() {
+        if (this.compact) {
+            final int v = this.readVarInt();
+            return (short) (v >>> 1 ^ -(v & 1));
+        }
+        return this.readFixedShort();
+    }
+
+    public char readChar() {
+        return (char) this.readShort();
+    }
+
+    public boolean readBoolean() {
+        return this.readByte() == 1;
+    }
+
+    @Nullable
+    public Object read() {
+        final Object o = this.readObject(this.readFrameStart());
+        this.readFrameEnd();
+        return o;
+    }
+
+    /**
+     * Read the next frame, but only decode the value at the path and skip the others.
+     * <p>
+     * Every element of the path is a field name of an object or a key of a map, and the serialized map of a FocessSerializable object is looked up directly.
+     * With the references enabled the whole frame is decoded, because every object must be registered.
+     * @param path the path
+     * @return the value at the path, or null if there is no such value
+     *
+     * @throws SerializationParseException if the binary-data is not correct
+     */
+    @Nullable
+    public Object read(final String... path) {
+        final byte type = this.readFrameStart();
+        final Object o = this.references ? select(this.readObject(type), path, 0) : this.project(type, path, 0);
+        this.readFrameEnd();
+        return o;
+    }
+
+    /**
+     * Read the start of the next frame and its header
+     * @return the type code of the value in the frame
+     */
+    private byte readFrameStart() {
+        if (!this.hasRemaining())
+            throw new SerializationParseException("Read over");
+        final byte start = this.readByte();
+        if (start != C_START)
+            throw new SerializationParseException("Start code is not correct");
+        this.classes.clear();
+        this.strings.clear();
+        this.objects.clear();
+        final byte type = this.readByte();
+        if (type == C_HEADER) {
+            this.setFeatures(this.readByte() & 0xFF);
+            return this.readByte();
+        }
+        this.setFeatures(0);
+        return type;
+    }
+
+    private void readFrameEnd() {
+        final byte end = this.readByte();
+        if (end != C_END)
+            throw new SerializationParseException("End code is not correct");
+        this.objects.clear();
+    }
+
+    @Nullable
+    private Object project(byte type, final String[] path, final int depth) {
+        if (depth == path.length)
+            return this.readObject(type);
+        if (type == C_SIZED) {
+            this.readFixedInt();
+            type = this.readByte();
+        }
+        switch (type) {
+            case C_OBJECT: {
+                this.readClass();
+                final int length = this.readLength();
+                Object o = null;
+                for (int i = 0; i < length; i++) {
+                    if (this.readByte() != C_FIELD)
+                        throw new SerializationParseException("Field code is not correct");
+                    if (path[depth].equals(this.readSymbol()))
+                        o = this.project(this.readByte(), path, depth + 1);
+                    else this.skipObject();
+                }
+                return o;
+            }
+            case C_MAP: {
+                final byte kind = this.readByte();
+                if (kind != K_HASH && kind != K_LINKED && kind != K_SORTED)
+                    throw new SerializationParseException("Unknown collection kind");
+                final int length = this.readLength();
+                Object o = null;
+                for (int i = 0; i < length; i++)
+                    if (path[depth].equals(this.readObject()))
+                        o = this.project(this.readByte(), path, depth + 1);
+                    else this.skipObject();
+                return o;
+            }
+            case C_FSERIALIZABLE:
+                this.readClass();
+                return this.project(this.readByte(), path, depth);
+            default:
+                return select(this.readObject(type), path, depth);
+        }
+    }
+
+    /**
+     * Select the value at the path from a decoded value
+     */
+    @Nullable
+    private static Object select(Object o, final String[] path, final int depth) {
+        for (int i = depth; i < path.length && o != null; i++)
+            if (o instanceof Map)
+                o = ((Map<?, ?>) o).get(path[i]);
+            else if (o instanceof FocessSerializable) {
+                final ClassMetadata metadata = ClassMetadata.of(o.getClass());
+                final int index = metadata.indexOf(path[i]);
+                o = index == -1 ? null : metadata.get(index, o);
+            } else o = null;
+        return o;
+    }
+
+    /**
+     * Skip the next value. A value prefixed with its length is skipped without decoding it, unless the tables or the references are enabled.
+     *
+     * @throws SerializationParseException if the binary-data is not correct
+     */
+    public void skipObject() {
+        final byte type = this.readByte();
+        switch (type) {
+            case C_NULL:
+                return;
+            case C_BYTE:
+            case C_BOOLEAN:
+                this.skipBytes(1);
+                return;
+            case C_SHORT:
+            case C_CHAR:
+                this.readShort();
+                return;
+            case C_INT:
+                this.readInt();
+                return;
+            case C_LONG:
+                this.readLong();
+                return;
+            case C_FLOAT:
+                this.skipBytes(4);
+                return;
+            case C_DOUBLE:
+                this.skipBytes(8);
+                return;
+            case C_STRING:
+                if (this.stringTable)
+                    this.strings.add(this.readString());
+                else this.skipBytes(this.readLength());
+                return;
+            case C_STRING_REF:
+                this.readLength();
+                return;
+            case C_SERIALIZABLE:
+                if (this.references)
+                    this.readObject(type);
+                else this.skipObject();
+                return;
+            case C_RAW_SERIALIZABLE:
+                if (this.references)
+                    this.readObject(type);
+                else this.skipBytes(this.readFixedInt());
+                return;
+            case C_SIZED: {
+                final int length = this.readFixedInt();
+                if (this.classTable || this.stringTable || this.references)
+                    this.readObject(this.readByte());
+                else this.skipBytes(length);
+                return;
+            }
+            default:
+                this.readObject(type);
+        }
+    }
+
+    /**
+     * Get the remaining frames of this reader as a stream, the frames are read from this reader lazily
+     * @return the stream of the decoded frames
+     *
+     * @throws SerializationParseException if the binary-data is not correct
+     */
+    public Stream<Object> frames() {
+        return StreamSupport.stream(new Spliterators.AbstractSpliterator<Object>(Long.MAX_VALUE, Spliterator.ORDERED) {
+            @Override
+            public boolean tryAdvance(final Consumer<? super Object> action) {
+                if (!SimpleFocessReader.this.hasRemaining())
+                    return false;
+                action.accept(SimpleFocessReader.this.read());
+                return true;
+            }
+        }, false);
+    }
+
+    /**
+     * Get the frames at the given offsets as a stream, which splits evenly for parallel processing.
+     * <p>
+     * Every split reads its frames with its own reader forked from this reader, so this reader is not moved.
+     * The offset of a frame is its position in the source, for example the {@link SimpleFocessWriter#size()} before the frame was written.
+     * @param offsets the offsets of the frames
+     * @return the stream of the decoded frames
+     *
+     * @throws SerializationParseException if the binary-data is not correct
+     * @throws UnsupportedOperationException if this reader can not be forked
+     */
+    public Stream<Object> frames(final long[] offsets) {
+        // fail here rather than in a worker of a parallel stream
+        if (!this.isForkable())
+            throw new UnsupportedOperationException(this.getClass().getSimpleName() + " can not be forked");
+        return StreamSupport.stream(new FrameSpliterator(this, offsets.clone(), 0, offsets.length), false);
+    }
+
+    /**
+     * Create a reader of the same source with the same reader map, which is moved independently of this reader
+     * @return the new reader
+     *
+     * @throws UnsupportedOperationException if the source can not be shared
+     */
+    protected SimpleFocessReader fork() {
+        final SimpleFocessReader reader = new SimpleFocessReader(this.bytes, this.readerMap);
+        reader.start = this.start;
+        reader.limit = this.limit;
+        return reader;
+    }
+
+    /**
+     * Indicate whether {@link #fork()} is supported
+     * @return true if this reader can be forked, false otherwise
+     */
+    protected boolean isForkable() {
+        return true;
+    }
+
+    /**
+     * Get the current position in the source, relative to its first byte
+     * @return the current position in the source
+     */
+    protected long tell() {
+        return this.pointer - this.start;
+    }
+
+    /**
+     * Move to the given position in the source
+     * @param position the position in the source, relative to its first byte
+     *
+     * @throws IllegalArgumentException if the position is out of range
+     */
+    protected void seek(final long position) {
+        if (position < 0 || position > this.limit - this.start)
+            throw new IllegalArgumentException("Position is out of range");
+        this.pointer = this.start + (int) position;
+    }
+
+    /**
+     * Read a batch written by {@link SimpleFocessWriter#writeAll(List)}
+     * @return the objects of the batch
+     *
+     * @throws SerializationParseException if the binary-data is not correct
+     */
+    public List<Object> readAll() {
+        return this.readAll(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Read a batch written by {@link SimpleFocessWriter#writeAll(List)}, the chunks are decoded concurrently as soon as they are read
+     * @param pool the pool decoding the chunks
+     * @return the objects of the batch
+     *
+     * @throws SerializationParseException if the binary-data is not correct
+     */
+    public List<Object> readAll(final ForkJoinPool pool) {
+        if (!this.hasRemaining())
+            throw new SerializationParseException("Read over");
+        if (this.readByte() != C_BATCH)
+            throw new SerializationParseException("Batch code is not correct");
+        final int chunks = this.readFixedInt();
+        if (chunks < 0)
+            throw new SerializationParseException("Chunk count is not correct");
+        final int[] counts = new int[chunks];
+        final int[] lengths = new int[chunks];
+        long size = 0;
+        for (int i = 0; i < chunks; i++) {
+            counts[i] = this.readFixedInt();
+            lengths[i] = this.readFixedInt();
+            if (counts[i] < 0 || lengths[i] < 0)
+                throw new SerializationParseException("Chunk directory is not correct");
+            size += counts[i];
+        }
+        if (size > Integer.MAX_VALUE - 8)
+            throw new SerializationParseException("Batch is too large");
+        final Object[] objects = new Object[(int) size];
+        final List<ForkJoinTask<?>> tasks = Lists.newArrayListWithCapacity(chunks);
+        final boolean forkable = this.isForkable();
+        int start = 0;
+        for (int i = 0; i < chunks; i++) {
+            final SimpleFocessReader reader;
+            final long end;
+            if (forkable) {
+                // decode the chunk straight from the shared source instead of copying it
+                reader = this.fork();
+                reader.seek(this.tell());
+                end = this.tell() + lengths[i];
+                this.skipBytes(lengths[i]);
+            } else {
+                final byte[] bytes = new byte[lengths[i]];
+                this.readBytes(bytes, 0, bytes.length);
+                reader = new SimpleFocessReader(bytes, this.readerMap);
+                end = bytes.length;
+            }
+            final int from = start;
+            final int count = counts[i];
+            tasks.add(pool.submit(() -> {
+                for (int j = 0; j < count; j++)
+                    objects[from + j] = reader.read();
+                if (reader.tell() != end)
+                    throw new SerializationParseException("Chunk length is not correct");
+            }));
+            start += count;
+        }
+        for (final ForkJoinTask<?> task : tasks)
+            task.join();
+        return new ArrayList<>(Arrays.asList(objects));
+    }
+
+    private Class<?> readClass() {
+        if (!this.classTable)
+            return this.findClass(this.readString());
+        final int id = this.readLength();
+        if (id == 0) {
+            final Class<?> cls = this.findClass(this.readString());
+            this.classes.add(cls);
+            return cls;
+        }
+        if (id > this.classes.size())
+            throw new SerializationParseException("Class reference is not correct");
+        return this.classes.get(id - 1);
+    }
+
+    /**
+     * Read a name, which may be a back-reference if the string table is enabled
+     * @return the name
+     */
+    private String readSymbol() {
+        if (!this.stringTable)
+            return this.readString();
+        final int id = this.readLength();
+        if (id == 0) {
+            final String v = this.readString();
+            this.strings.add(v);
+            return v;
+        }
+        return this.readStringReference(id);
+    }
+
+    private String readStringReference(final int id) {
+        if (id == 0 || id > this.strings.size())
+            throw new SerializationParseException("String reference is not correct");
+        return this.strings.get(id - 1);
+    }
+
+    private Class<?> findClass(final String cls) {
+        switch (cls) {
+            case "byte":
+                return byte.class;
+            case "short":
+                return short.class;
+            case "int":
+                return int.class;
+            case "long":
+                return long.class;
+            case "float":
+                return float.class;
+            case "double":
+                return double.class;
+            case "boolean":
+                return boolean.class;
+            case "char":
+                return char.class;
+            case "void":
+                return void.class;
+            default:
+                try {
+                    return DEFAULT_CLASS_FINDER.forName(cls);
+                } catch (final ClassNotFoundException e) {
+                    throw new SerializationParseException(e);
+                }
+        }
+    }
+
+    @Nullable
+    public <T,V extends Enum<V>> Object readObject() {
+        return this.readObject(this.readByte());
+    }
+
+    @Nullable
+    private Object readObject(final byte type) {
+        if (type == C_SIZED) {
+            this.readFixedInt();
+            return this.readObject(this.readByte());
+        }
+        if (type == C_REFERENCE)
+            return this.readReference(this.readLength());
+        if (!this.references || !isTracked(type))
+            return this.readObject(type, -1);
+        final int id = this.objects.size();
+        this.objects.add(null);
+        final Object o = this.readObject(type, id);
+        this.objects.set(id, o);
+        return o;
+    }
+
+    /**
+     * Check whether the objects of the type are tracked when the references are enabled, which must match {@code SimpleFocessWriter.isTracked}
+     * @param type the type code
+     * @return true if the objects of the type are tracked
+     */
+    private static boolean isTracked(final byte type) {
+        switch (type) {
+            case C_NULL:
+            case C_BYTE:
+            case C_SHORT:
+            case C_INT:
+            case C_LONG:
+            case C_FLOAT:
+            case C_DOUBLE:
+            case C_BOOLEAN:
+            case C_CHAR:
+            case C_STRING:
+            case C_STRING_REF:
+            case C_ENUM:
+                return false;
+            default:
+                return true;
+        }
+    }
+
+    private Object readReference(final int id) {
+        if (!this.references || id < 0 || id >= this.objects.size())
+            throw new SerializationParseException("Object reference is not correct");
+        final Object o = this.objects.get(id);
+        if (o == null)
+            throw new SerializationParseException("Cyclic reference to an object which is not constructed yet");
+        return o;
+    }
+
+    /**
+     * Register the constructed object before its content is read, so that the cyclic references to it can be resolved
+     * @param id the id of the object, or -1 if it is not tracked
+     * @param o the object
+     */
+    private void register(final int id, final Object o) {
+        if (id != -1)
+            this.objects.set(id, o);
+    }
+
+    /**
+     * Read the object of the type
+     * @param type the type code
+     * @param id the id of the object, or -1 if it is not tracked
+     * @return the object
+     */
+    @Nullable
+    private <T,V extends Enum<V>> Object readObject(final byte type, final int id) {
+        switch (type) {
+            case C_NULL:
+                return null;
+            case C_BYTE:
+                return this.readByte();
+            case C_SHORT:
+                return this.readShort();
+            case C_INT:
+                return this.readInt();
+            case C_LONG:
+                return this.readLong();
+            case C_FLOAT:
+                return this.readFloat();
+            case C_DOUBLE:
+                return this.readDouble();
+            case C_BOOLEAN:
+                return this.readBoolean();
+            case C_CHAR:
+                return this.readChar();
+            case C_STRING: {
+                final String v = this.readString();
+                if (this.stringTable)
+                    this.strings.add(v);
+                return v;
+            }
+            case C_STRING_REF:
+                return this.readStringReference(this.readLength());
+            case C_ENUM: {
+                try {
+                    final Class<V> cls = (Class<V>) this.readClass();
+                    return Enum.valueOf(cls, this.readSymbol());
+                } catch (final Exception e) {
+                    throw new SerializationParseException(e);
+                }
+            }
+            case C_BYTES:
+            case C_SHORTS:
+            case C_INTS:
+            case C_LONGS:
+            case C_FLOATS:
+            case C_DOUBLES:
+            case C_BOOLEANS:
+            case C_CHARS:
+                return this.readPrimitiveArray(type);
+            case C_LIST:
+            case C_SET:
+            case C_MAP:
+                return this.readCollection(type, id);
+            case C_ARRAY: {
+                final Class<?> cls = this.readClass();
+                final int length = this.readLength();
+                final Object array = Array.newInstance(cls, length);
+                this.register(id, array);
+                for (int i = 0; i < length; i++)
+                    Array.set(array, i, this.readObject());
+                return array;
+            }
+            case C_FSERIALIZABLE: {
+                final Class<?> cls = this.readClass();
+                final Object o = this.readObject();
+                if (o instanceof Map)
+                    try {
+                        return DeserializerRegistry.deserialize(cls, (Map<String, Object>) o);
+                    } catch (final SerializationParseException e) {
+                        throw e;
+                    } catch (final Exception e) {
+                        throw new SerializationParseException(e);
+                    }
+                else throw new SerializationParseException("Deserialize argument is not a map");
+            }
+            case C_OBJECT: {
+                final Class<?> cls = this.readClass();
+                final int length = this.readLength();
+                try {
+                    final ClassMetadata metadata = ClassMetadata.of(cls);
+                    final Object o = metadata.newInstance();
+                    this.register(id, o);
+                    for (int i = 0; i < length; i++) {
+                        final byte field = this.readByte();
+                        if (field != C_FIELD)
+                            throw new SerializationParseException("Field code is not correct");
+                        final String fieldName = this.readSymbol();
+                        final int index = metadata.indexOf(fieldName);
+                        if (index == -1)
+                            throw new NoSuchFieldException(fieldName);
+                        metadata.set(index, o, this.readObject());
+                    }
+                    return o;
+                } catch (final Exception e) {
+                    throw new SerializationParseException(e);
+                }
+            }
+            case C_REGISTERED: {
+                final ClassRegistry.Registration registration = ClassRegistry.get(this.readVarInt());
+                if (registration == null)
+                    throw new SerializationParseException("Class id is not registered");
+                final ClassMetadata metadata = registration.getMetadata();
+                final int length = this.readVarInt();
+                try {
+                    final Object o = metadata.newInstance();
+                    this.register(id, o);
+                    for (int i = 0; i < length; i++) {
+                        final int index = registration.indexOf(this.readVarInt());
+                        // a field unknown to this version of the class
+                        if (index == -1)
+                            this.skipObject();
+                        else metadata.set(index, o, this.readObject());
+                    }
+                    return o;
+                } catch (final SerializationParseException e) {
+                    throw e;
+                } catch (final Exception e) {
+                    throw new SerializationParseException(e);
+                }
+            }
+            case C_GENERATED: {
+                final Class<T> cls = (Class<T>) this.readClass();
+                final GeneratedSerializer<T> serializer = GeneratedSerializers.get(cls);
+                if (serializer == null)
+                    throw new SerializationParseException("No generated serializer for class: " + cls.getName());
+                if (this.readLength() != serializer.size())
+                    throw new SerializationParseException("Field count of class " + cls.getName() + " is not correct");
+                return serializer.read(this);
+            }
+            case C_RESERVED: {
+                final Class<T> cls = (Class<T>) this.readClass();
+                Reader<T> reader;
+                if ((reader = (Reader<T>) CLASS_READER_MAP.get(cls)) != null)
+                    return reader.read(cls, this);
+                else if ((reader = (Reader<T>) this.readerMap.get(cls)) != null)
+                    return reader.read(cls, this);
+                else throw new SerializationParseException("No reader for class: " + cls.getName());
+            }
+            case C_SERIALIZABLE: {
+                // the original layout written without RAW_SERIALIZABLE, which nests the payload as a byte[] value
+                try {
+                    final byte[] bytes = (byte[]) this.readObject();
+                    final ObjectInputStream objectInputStream = new ObjectInputStream(new ByteArrayInputStream(bytes));
+                    return objectInputStream.readObject();
+                } catch (final SerializationParseException e) {
+                    throw e;
+                } catch (final Exception e) {
+                    throw new SerializationParseException(e);
+                }
+            }
+            case C_RAW_SERIALIZABLE: {
+                final int length = this.readFixedInt();
+                if (length < 0)
+                    throw new SerializationParseException("Length is not correct");
+                try {
+                    final ObjectInputStream objectInputStream = new ObjectInputStream(newInputStream(this.readSlice(length)));
+                    return objectInputStream.readObject();
+                } catch (final SerializationParseException e) {
+                    throw e;
+                } catch (final Exception e) {
+                    throw new SerializationParseException(e);
+                }
+            }
+            default:
+                throw new SerializationParseException("Unknown type code");
+        }
+    }
+
+    /**
+     * Read a native collection, which is pre-sized by its length
+     * @param type the type code of the collection
+     * @param id the id of the collection, or -1 if it is not tracked
+     * @return the collection
+     */
+    private Object readCollection(final byte type, final int id) {
+        final byte kind = this.readByte();
+        if (kind != K_HASH && kind != K_LINKED && kind != K_SORTED)
+            throw new SerializationParseException("Unknown collection kind");
+        final int length = this.readLength();
+        if (type == C_MAP) {
+            final Map<Object, Object> map = kind == K_HASH ? Maps.newHashMapWithExpectedSize(length) : kind == K_LINKED ? Maps.newLinkedHashMapWithExpectedSize(length) : new TreeMap<>();
+            this.register(id, map);
+            for (int i = 0; i < length; i++) {
+                final Object key = this.readObject();
+                map.put(key, this.readObject());
+            }
+            return map;
+        }
+        final Collection<Object> collection;
+        if (type == C_LIST)
+            if (kind == K_HASH)
+                collection = Lists.newArrayListWithCapacity(length);
+            else if (kind == K_LINKED)
+                collection = Lists.newLinkedList();
+            else throw new SerializationParseException("Unknown collection kind");
+        else collection = kind == K_HASH ? Sets.newHashSetWithExpectedSize(length) : kind == K_LINKED ? Sets.newLinkedHashSetWithExpectedSize(length) : new TreeSet<>();
+        this.register(id, collection);
+        for (int i = 0; i < length; i++)
+            collection.add(this.readObject());
+        return collection;
+    }
+
+    private Object readPrimitiveArray(final byte type) {
+        final int length = this.readLength();
+        switch (type) {
+            case C_BYTES: {
+                final byte[] v = new byte[length];
+                this.readBytes(v, 0, length);
+                return v;
+            }
+            case C_SHORTS: {
+                final short[] v = new short[length];
+                if (this.compact)
+                    for (int i = 0; i < length; i++)
+                        v[i] = this.readShort();
+                else for (int i = 0; i < length; ) {
+                    final ShortBuffer view = this.readView(length - i, 2).asShortBuffer();
+                    final int count = view.remaining();
+                    view.get(v, i, count);
+                    i += count;
+                }
+                return v;
+            }
+            case C_INTS: {
+                final int[] v = new int[length];
+                if (this.compact)
+                    for (int i = 0; i < length; i++)
+                        v[i] = this.readInt();
+                else for (int i = 0; i < length; ) {
+                    final IntBuffer view = this.readView(length - i, 4).asIntBuffer();
+                    final int count = view.remaining();
+                    view.get(v, i, count);
+                    i += count;
+                }
+                return v;
+            }
+            case C_LONGS: {
+                final long[] v = new long[length];
+                if (this.compact)
+                    for (int i = 0; i < length; i++)
+                        v[i] = this.readLong();
+                else for (int i = 0; i < length; ) {
+                    final LongBuffer view = this.readView(length - i, 8).asLongBuffer();
+                    final int count = view.remaining();
+                    view.get(v, i, count);
+                    i += count;
+                }
+                return v;
+            }
+            case C_FLOATS: {
+                final float[] v = new float[length];
+                for (int i = 0; i < length; ) {
+                    final FloatBuffer view = this.readView(length - i, 4).asFloatBuffer();
+                    final int count = view.remaining();
+                    view.get(v, i, count);
+                    i += count;
+                }
+                return v;
+            }
+            case C_DOUBLES: {
+                final double[] v = new double[length];
+                for (int i = 0; i < length; ) {
+                    final DoubleBuffer view = this.readView(length - i, 8).asDoubleBuffer();
+                    final int count = view.remaining();
+                    view.get(v, i, count);
+                    i += count;
+                }
+                return v;
+            }
+            case C_CHARS: {
+                final char[] v = new char[length];
+                for (int i = 0; i < length; ) {
+                    final CharBuffer view = this.readView(length - i, 2).asCharBuffer();
+                    final int count = view.remaining();
+                    view.get(v, i, count);
+                    i += count;
+                }
+                return v;
+            }
+            default: {
+                final boolean[] v = new boolean[length];
+                for (int i = 0; i < length; i += 8) {
+                    final byte b = this.readByte();
+                    for (int j = 0; j < 8 && i + j < length; j++)
+                        v[i + j] = (b & 1 << j) != 0;
+                }
+                return v;
+            }
+        }
+    }
+
+    private static final class FrameSpliterator implements Spliterator<Object> {
+
+        private final SimpleFocessReader source;
+
+        private final long[] offsets;
+
+        private int index;
+
+        private final int fence;
+
+        /**
+         * The reader forked from the source, created on the first frame
+         */
+        private SimpleFocessReader reader;
+
+        private FrameSpliterator(final SimpleFocessReader source, final long[] offsets, final int index, final int fence) {
+            this.source = source;
+            this.offsets = offsets;
+            this.index = index;
+            this.fence = fence;
+        }
+
+        @Override
+        public boolean tryAdvance(final Consumer<? super Object> action) {
+            if (this.index >= this.fence)
+                return false;
+            if (this.reader == null)
+                this.reader = this.source.fork();
+            // the frames are not required to be adjacent
+            this.reader.seek(this.offsets[this.index++]);
+            action.accept(this.reader.read());
+            return true;
+        }
+
+        @Override
+        public Spliterator<Object> trySplit() {
+            final int middle = (this.index + this.fence) >>> 1;
+            if (middle <= this.index)
+                return null;
+            final FrameSpliterator prefix = new FrameSpliterator(this.source, this.offsets, this.index, middle);
+            this.index = middle;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return this.fence - this.index;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED | IMMUTABLE;
+        }
+    }
+
+    public interface Reader<T> {
+        T read(Class<T> cls, FocessReader reader) throws SerializationParseException;
+    }
+
+}
@@ -0,0 +1,1019 @@
+package top.focess.util.serialize;
+
+import com.google.common.collect.Maps;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.lang.reflect.Array;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.ShortBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import static top.focess.util.serialize.Opcodes.*;
+
+/**
+ * @deprecated FocessUtil is no longer maintained. Do not use.
+ */
+@Deprecated(forRemoval = true, since = "1.1.25")
+public class SimpleFocessWriter extends FocessWriter {
+
+    private static final Map<Class<?>, Writer<?>> CLASS_WRITER_MAP = Maps.newHashMap();
+
+    static {
+        SimpleFocessWriter.CLASS_WRITER_MAP.put(Class.class, (Writer<Class>) (clazz, writer) -> writer.writeString(clazz.getName()));
+    }
+
+    private static final int DEFAULT_CAPACITY = 256;
+
+    static final int VIEW_SIZE = 8192;
+
+    static final int LARGE_STRING = 1 << 16;
+
+    private static final int MIN_CHUNK_SIZE = 256;
+
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    private final Map<Class<?>, Writer<?>> writerMap = Maps.newHashMap();
+
+    /**
+     * The written bytes, only the first {@link #position} bytes are valid
+     */
+    protected byte[] buffer;
+
+    /**
+     * The index of the next byte to be written in {@link #buffer}
+     */
+    protected int position;
+
+    /**
+     * The masks of the enabled features
+     */
+    protected int features;
+
+    private boolean compact;
+
+    private boolean classTable;
+
+    /**
+     * The ids of the classes defined in the current frame
+     */
+    private final Map<Class<?>, Integer> classes = Maps.newHashMap();
+
+    private boolean stringTable;
+
+    /**
+     * The ids of the strings written in the current frame
+     */
+    private final Map<String, Integer> strings = Maps.newHashMap();
+
+    private boolean references;
+
+    /**
+     * The ids of the objects written in the current frame
+     */
+    private final Map<Object, Integer> objects = new IdentityHashMap<>();
+
+    private boolean lengthPrefix;
+
+    private boolean primitiveArrays;
+
+    private boolean collections;
+
+    private boolean rawSerializable;
+
+    /**
+     * The number of length slots which are reserved but not patched yet, the bytes from the first open slot must stay in the buffer
+     */
+    protected int openSlots;
+
+    /**
+     * The writer counting the bytes of {@link #sizeOf(Object)}, created on first use
+     */
+    private SizeCounter sizeCounter;
+
+    /**
+     * The raw output of the Java serialization payloads
+     */
+    private final OutputStream outputStream = new OutputStream() {
+        @Override
+        public void write(final int b) {
+            SimpleFocessWriter.this.writeByte((byte) b);
+        }
+
+        @Override
+        public void write(final byte[] bytes, final int offset, final int length) {
+            SimpleFocessWriter.this.writeBytes(bytes, offset, length);
+        }
+    };
+
+    protected SimpleFocessWriter() {
+        this.buffer = new byte[DEFAULT_CAPACITY];
+    }
+
+    public SimpleFocessWriter(final Map<Class<?>, Writer<?>> writerMap) {
+        this();
+        this.writerMap.putAll(writerMap);
+    }
+
+    protected SimpleFocessWriter(final int capacity, final Map<Class<?>, Writer<?>> writerMap) {
+        if (capacity <= 0)
+            throw new IllegalArgumentException("Capacity must be positive");
+        this.buffer = new byte[capacity];
+        this.writerMap.putAll(writerMap);
+    }
+
+    /**
+     * Create a writer which keeps the written bytes in the given buffer, or outside of {@link #buffer} if it overrides all the methods writing to it
+     * @param buffer the buffer
+     * @param writerMap the writer map
+     */
+    protected SimpleFocessWriter(final byte[] buffer, final Map<Class<?>, Writer<?>> writerMap) {
+        this.buffer = buffer;
+        this.writerMap.putAll(writerMap);
+    }
+
+    /**
+     * Make sure there are at least n writable bytes left in the buffer
+     * @param n the number of bytes going to be written
+     */
+    protected void ensureCapacity(final int n) {
+        if (this.buffer.length - this.position >= n)
+            return;
+        final int required = this.position + n;
+        if (required < 0)
+            throw new SerializationException(new IOException("Output is too large"));
+        this.buffer = Arrays.copyOf(this.buffer, Math.max(this.buffer.length << 1, required));
+    }
+
+    /**
+     * Enable the feature for the frames written later
+     * @param feature the feature
+     * @return this writer
+     */
+    public SimpleFocessWriter enable(final SerializationFeature feature) {
+        this.features |= feature.getMask();
+        this.updateFeatures();
+        return this;
+    }
+
+    /**
+     * Disable the feature for the frames written later
+     * @param feature the feature
+     * @return this writer
+     */
+    public SimpleFocessWriter disable(final SerializationFeature feature) {
+        this.features &= ~feature.getMask();
+        this.updateFeatures();
+        return this;
+    }
+
+    private void updateFeatures() {
+        this.compact = this.isEnabled(SerializationFeature.COMPACT);
+        this.classTable = this.isEnabled(SerializationFeature.CLASS_TABLE);
+        this.stringTable = this.isEnabled(SerializationFeature.STRING_TABLE);
+        this.references = this.isEnabled(SerializationFeature.REFERENCES);
+        this.lengthPrefix = this.isEnabled(SerializationFeature.LENGTH_PREFIX);
+        this.primitiveArrays = this.isEnabled(SerializationFeature.PRIMITIVE_ARRAYS);
+        this.collections = this.isEnabled(SerializationFeature.COLLECTIONS);
+        this.rawSerializable = this.isEnabled(SerializationFeature.RAW_SERIALIZABLE);
+    }
+
+    /**
+     * Indicate whether the feature is enabled
+     * @param feature the feature
+     * @return true if the feature is enabled, false otherwise
+     */
+    public boolean isEnabled(final SerializationFeature feature) {
+        return (this.features & feature.getMask()) != 0;
+    }
+
+    public void writeInt(final int v) {
+        if (this.compact)
+            this.writeVarInt(v << 1 ^ v >> 31);
+        else this.writeFixedInt(v);
+    }
+
+    public void writeLong(final long v) {
+        if (this.compact)
+            this.writeVarLong(v << 1 ^ v >> 63);
+        else this.writeFixedLong(v);
+    }
+
+    /**
+     * Write a length or a count, which is never negative
+     * @param v the length
+     */
+    protected void writeLength(final int v) {
+        if (this.compact)
+            this.writeVarInt(v);
+        else this.writeFixedInt(v);
+    }
+
+    protected void writeFixedInt(final int v) {
+        this.ensureCapacity(4);
+        final byte[] buffer = this.buffer;
+        final int p = this.position;
+        buffer[p] = (byte) v;
+        buffer[p + 1] = (byte) (v >>> 8);
+        buffer[p + 2] = (byte) (v >>> 16);
+        buffer[p + 3] = (byte) (v >>> 24);
+        this.position = p + 4;
+    }
+
+    protected void writeFixedLong(final long v) {
+        this.ensureCapacity(8);
+        final byte[] buffer = this.buffer;
+        final int p = this.position;
+        buffer[p] = (byte) v;
+        buffer[p + 1] = (byte) (v >>> 8);
+        buffer[p + 2] = (byte) (v >>> 16);
+        buffer[p + 3] = (byte) (v >>> 24);
+        buffer[p + 4] = (byte) (v >>> 32);
+        buffer[p + 5] = (byte) (v >>> 40);
+        buffer[p + 6] = (byte) (v >>> 48);
+        buffer[p + 7] = (byte) (v >>> 56);
+        this.position = p + 8;
+    }
+
+    protected void writeFixedShort(final short v) {
+        this.ensureCapacity(2);
+        this.buffer[this.position] = (byte) v;
+        this.buffer[this.position + 1] = (byte) (v >>> 8);
+        this.position += 2;
+    }
+
+    /**
+     * Write the int as an unsigned LEB128 varint
+     * @param v the int
+     */
+    protected void writeVarInt(int v) {
+        this.ensureCapacity(5);
+        final byte[] buffer = this.buffer;
+        int p = this.position;
+        while ((v & ~0x7F) != 0) {
+            buffer[p++] = (byte) (v & 0x7F | 0x80);
+            v >>>= 7;
+        }
+        buffer[p++] = (byte) v;
+        this.position = p;
+    }
+
+    /**
+     * Write the long as an unsigned LEB128 varint
+     * @param v the long
+     */
+    protected void writeVarLong(long v) {
+        this.ensureCapacity(10);
+        final byte[] buffer = this.buffer;
+        int p = this.position;
+        while ((v & ~0x7FL) != 0) {
+            buffer[p++] = (byte) (v & 0x7F | 0x80);
+            v >>>= 7;
+        }
+        buffer[p++] = (byte) v;
+        this.position = p;
+    }
+
+    public void writeString(final String v) {
+        final int length = v.length();
+        // a huge string would need a buffer of three times its length
+        if (length > LARGE_STRING) {
+            final byte[] bytes = v.getBytes(StandardCharsets.UTF_8);
+            this.writeLength(bytes.length);
+            this.writeBytes(bytes, 0, bytes.length);
+        } else if (this.compact) {
+            // the size of the varint depends on the encoded length, so count it first
+            final int size = utf8Length(v);
+            this.writeLength(size);
+            this.ensureCapacity(size);
+            this.position = this.encodeUTF8(v, this.position);
+        } else {
+            this.ensureCapacity(4 + length * 3);
+            final int slot = this.position;
+            this.position = this.encodeUTF8(v, slot + 4);
+            this.putFixedInt(slot, this.position - slot - 4);
+        }
+    }
+
+    /**
+     * Get the length of the string in UTF-8, an unpaired surrogate is encoded as '?' like {@link String#getBytes(java.nio.charset.Charset)} does
+     * @param v the string
+     * @return the length of the string in UTF-8
+     */
+    static int utf8Length(final String v) {
+        final int length = v.length();
+        int size = length;
+        for (int i = 0; i < length; i++) {
+            final char c = v.charAt(i);
+            if (c < 0x80)
+                continue;
+            if (c < 0x800)
+                size++;
+            else if (!Character.isSurrogate(c))
+                size += 2;
+            else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(v.charAt(i + 1))) {
+                // 4 bytes for 2 chars
+                size += 2;
+                i++;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Encode the string in UTF-8 with {@link #putByte(int, byte)}, the buffer must have enough space
+     * @param v the string
+     * @param p the start position in the buffer
+     * @return the position after the encoded string
+     */
+    private int encodeUTF8(final String v, int p) {
+        final int length = v.length();
+        int i = 0;
+        // ASCII fast path
+        for (char c; i < length && (c = v.charAt(i)) < 0x80; i++)
+            this.putByte(p++, (byte) c);
+        for (; i < length; i++) {
+            final char c = v.charAt(i);
+            if (c < 0x80)
+                this.putByte(p++, (byte) c);
+            else if (c < 0x800) {
+                this.putByte(p++, (byte) (0xC0 | c >> 6));
+                this.putByte(p++, (byte) (0x80 | c & 0x3F));
+            } else if (!Character.isSurrogate(c)) {
+                this.putByte(p++, (byte) (0xE0 | c >> 12));
+                this.putByte(p++, (byte) (0x80 | c >> 6 & 0x3F));
+                this.putByte(p++, (byte) (0x80 | c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(v.charAt(i + 1))) {
+                final int codePoint = Character.toCodePoint(c, v.charAt(++i));
+                this.putByte(p++, (byte) (0xF0 | codePoint >> 18));
+                this.putByte(p++, (byte) (0x80 | codePoint >> 12 & 0x3F));
+                this.putByte(p++, (byte) (0x80 | codePoint >> 6 & 0x3F));
+                this.putByte(p++, (byte) (0x80 | codePoint & 0x3F));
+            } else this.putByte(p++, (byte) '?');
+        }
+        return p;
+    }
+
+    /**
+     * Reserve a little-endian view of the buffer for bulk writing, the view must be filled completely
+     * @param count the maximum number of elements to write
+     * @param size the size of an element
+     * @return the view, which holds at least one element and at most count elements
+     */
+    protected ByteBuffer writeView(final int count, final int size) {
+        this.ensureCapacity(Math.min(count, VIEW_SIZE / size) * size);
+        final int length = Math.min(count, (this.buffer.length - this.position) / size) * size;
+        final ByteBuffer view = ByteBuffer.wrap(this.buffer, this.position, length).slice().order(ByteOrder.LITTLE_ENDIAN);
+        this.position += length;
+        return view;
+    }
+
+    /**
+     * Reserve a fixed-size length slot, which is patched by {@link #patchLength(int)} once the value is written
+     * @return the position of the slot in the buffer
+     */
+    protected int reserveLength() {
+        this.ensureCapacity(4);
+        this.openSlots++;
+        final int slot = this.position;
+        this.position += 4;
+        return slot;
+    }
+
+    /**
+     * Patch the length slot with the number of bytes written after it
+     * @param slot the position of the slot in the buffer
+     */
+    protected void patchLength(final int slot) {
+        this.putFixedInt(slot, this.position - slot - 4);
+        this.openSlots--;
+    }
+
+    /**
+     * Put the byte at the given position of the buffer without moving {@link #position}
+     * @param index the position in the buffer
+     * @param v the byte
+     */
+    protected void putByte(final int index, final byte v) {
+        this.buffer[index] = v;
+    }
+
+    /**
+     * Put the fixed-size int at the given position of the buffer without moving {@link #position}
+     * @param index the position in the buffer
+     * @param v the int
+     */
+    protected void putFixedInt(final int index, final int v) {
+        this.buffer[index] = (byte) v;
+        this.buffer[index + 1] = (byte) (v >>> 8);
+        this.buffer[index + 2] = (byte) (v >>> 16);
+        this.buffer[index + 3] = (byte) (v >>> 24);
+    }
+
+    /**
+     * Write the raw bytes without any length prefix
+     * @param bytes the bytes
+     * @param offset the start offset in the bytes
+     * @param length the number of bytes to write
+     */
+    protected void writeBytes(final byte[] bytes, final int offset, final int length) {
+        this.ensureCapacity(length);
+        System.arraycopy(bytes, offset, this.buffer, this.position, length);
+        this.position += length;
+    }
+
+    public void writeFloat(final float v) {
+        this.writeFixedInt(Float.floatToIntBits(v));
+    }
+
+    public void writeDouble(final double v) {
+        this.writeFixedLong(Double.doubleToLongBits(v));
+    }
+
+    public void writeShort(final short v) {
+        if (this.compact)
+            this.writeVarInt(v << 1 ^ v >> 31);
+        else this.writeFixedShort(v);
+    }
+
+    public void writeBoolean(final boolean v) {
+        this.writeByte((byte) (v ? 1 : 0));
+    }
+
+    public void writeChar(final char v) {
+        this.writeShort((short) v);
+    }
+
+    public void writeByte(final byte v) {
+        this.ensureCapacity(1);
+        this.putByte(this.position++, v);
+    }
+
+    private void writeClass(final Class<?> cls, final boolean isSerializable, final boolean isGenerated, final ClassRegistry.Registration registration, final boolean isCollection) {
+        if (cls.equals(Byte.class))
+            this.writeByte(C_BYTE);
+        else if (cls.equals(Short.class))
+            this.writeByte(C_SHORT);
+        else if (cls.equals(Integer.class))
+            this.writeByte(C_INT);
+        else if (cls.equals(Long.class))
+            this.writeByte(C_LONG);
+        else if (cls.equals(Float.class))
+            this.writeByte(C_FLOAT);
+        else if (cls.equals(Double.class))
+            this.writeByte(C_DOUBLE);
+        else if (cls.equals(Boolean.class))
+            this.writeByte(C_BOOLEAN);
+        else if (cls.equals(Character.class))
+            this.writeByte(C_CHAR);
+        else if (cls.equals(String.class))
+            this.writeByte(C_STRING);
+        else if (cls.isArray())
+            this.writeByte(this.primitiveArrays && cls.getComponentType().isPrimitive() ? primitiveArrayCode(cls.getComponentType()) : C_ARRAY);
+        else if (cls.isEnum()) {
+            this.writeByte(C_ENUM);
+            this.writeClassName(cls);
+        } else if (cls.getSuperclass().isEnum()) {
+            this.writeByte(C_ENUM);
+            this.writeClassName(cls.getSuperclass());
+        } else if (FocessSerializable.class.isAssignableFrom(cls)) {
+            if (isSerializable)
+                this.writeByte(C_FSERIALIZABLE);
+            else if (isGenerated)
+                this.writeByte(C_GENERATED);
+            else if (registration != null) {
+                this.writeByte(C_REGISTERED);
+                this.writeVarInt(registration.getId());
+                return;
+            } else this.writeByte(C_OBJECT);
+            this.writeClassName(cls);
+        } else if (SimpleFocessWriter.CLASS_WRITER_MAP.containsKey(cls) || this.writerMap.containsKey(cls)) {
+            this.writeByte(C_RESERVED);
+            this.writeClassName(cls);
+        } else if (isCollection) {
+            if (cls == ArrayList.class || cls == LinkedList.class)
+                this.writeByte(C_LIST);
+            else if (cls == HashSet.class || cls == LinkedHashSet.class || cls == TreeSet.class)
+                this.writeByte(C_SET);
+            else this.writeByte(C_MAP);
+            if (cls == ArrayList.class || cls == HashSet.class || cls == HashMap.class)
+                this.writeByte(K_HASH);
+            else if (cls == LinkedList.class || cls == LinkedHashSet.class || cls == LinkedHashMap.class)
+                this.writeByte(K_LINKED);
+            else this.writeByte(K_SORTED);
+        } else if (Serializable.class.isAssignableFrom(cls))
+            this.writeByte(this.rawSerializable ? C_RAW_SERIALIZABLE : C_SERIALIZABLE);
+        else throw new NotFocessSerializableException(cls.getName());
+    }
+
+    /**
+     * Write the class name, or a back-reference to it if the class table is enabled and it has been written in this frame
+     * @param cls the class
+     */
+    private void writeClassName(final Class<?> cls) {
+        if (!this.classTable) {
+            this.writeString(cls.getName());
+            return;
+        }
+        final Integer id = this.classes.get(cls);
+        if (id != null)
+            this.writeLength(id);
+        else {
+            this.writeLength(0);
+            this.writeString(cls.getName());
+            this.classes.put(cls, this.classes.size() + 1);
+        }
+    }
+
+    public <T> void writeObject(final Object o) {
+        if (o == null) {
+            this.writeByte(C_NULL);
+            return;
+        }
+        if (this.references && isTracked(o.getClass())) {
+            final Integer id = this.objects.get(o);
+            if (id != null) {
+                this.writeByte(C_REFERENCE);
+                this.writeLength(id);
+                return;
+            }
+            this.objects.put(o, this.objects.size());
+        }
+        if (this.stringTable && o instanceof String) {
+            final Integer id = this.strings.get(o);
+            if (id != null) {
+                this.writeByte(C_STRING_REF);
+                this.writeLength(id);
+                return;
+            }
+            this.strings.put((String) o, this.strings.size() + 1);
+        }
+        if (this.lengthPrefix && isTracked(o.getClass())) {
+            this.writeByte(C_SIZED);
+            final int slot = this.reserveLength();
+            try {
+                this.writeValue(o);
+            } finally {
+                this.patchLength(slot);
+            }
+        } else this.writeValue(o);
+    }
+
+    private <T> void writeValue(final Object o) {
+        final boolean isSerializable = o instanceof FocessSerializable;
+        final Map<String, Object> data = isSerializable ? ((FocessSerializable) o).serialize() : null;
+        final GeneratedSerializer<Object> generated = isSerializable && data == null ? GeneratedSerializers.get((Class<Object>) o.getClass()) : null;
+        final ClassRegistry.Registration registration = isSerializable && data == null && generated == null ? ClassRegistry.get(o.getClass()) : null;
+        final boolean isCollection = this.collections && isCollection(o);
+        this.writeClass(o.getClass(), data != null, generated != null, registration, isCollection);
+        if (o instanceof Byte)
+            this.writeByte((Byte) o);
+        else if (o instanceof Short)
+            this.writeShort((Short) o);
+        else if (o instanceof Integer)
+            this.writeInt((Integer) o);
+        else if (o instanceof Long)
+            this.writeLong((Long) o);
+        else if (o instanceof Float)
+            this.writeFloat((Float) o);
+        else if (o instanceof Double)
+            this.writeDouble((Double) o);
+        else if (o instanceof Boolean)
+            this.writeBoolean((Boolean) o);
+        else if (o instanceof String)
+            this.writeString((String) o);
+        else if (o instanceof Character)
+            this.writeChar((Character) o);
+        else if (o.getClass().isEnum() || o.getClass().getSuperclass().isEnum())
+            this.writeSymbol(((Enum<?>) o).name());
+        else if (o instanceof FocessSerializable) {
+            if (data != null)
+                this.writeObject(data);
+            else if (generated != null) {
+                this.writeLength(generated.size());
+                generated.write(o, this);
+            } else if (registration != null) {
+                final ClassMetadata metadata = registration.getMetadata();
+                this.writeVarInt(metadata.size());
+                for (int i = 0; i < metadata.size(); i++) {
+                    this.writeVarInt(registration.getFieldId(i));
+                    this.writeObject(metadata.get(i, o));
+                }
+            } else {
+                final ClassMetadata metadata = ClassMetadata.of(o.getClass());
+                this.writeLength(metadata.size());
+                for (int i = 0; i < metadata.size(); i++)
+                    this.writeField(metadata.getName(i), metadata.get(i, o));
+            }
+        } else if (this.primitiveArrays && o.getClass().isArray() && o.getClass().getComponentType().isPrimitive())
+            this.writePrimitiveArray(o);
+        else if (o.getClass().isArray()) {
+            this.writeClassName(o.getClass().getComponentType());
+            final int length;
+            this.writeLength(length = Array.getLength(o));
+            for (int i = 0; i < length; i++)
+                this.writeObject(Array.get(o, i));
+        } else if (SimpleFocessWriter.CLASS_WRITER_MAP.containsKey(o.getClass())) {
+            final Writer<T> writer = (Writer<T>) CLASS_WRITER_MAP.get(o.getClass());
+            writer.write((T) o, this);
+        } else if (this.writerMap.containsKey(o.getClass())) {
+            final Writer<T> writer = (Writer<T>) this.writerMap.get(o.getClass());
+            writer.write((T) o, this);
+        } else if (isCollection) {
+            if (o instanceof Map) {
+                final Map<?, ?> map = (Map<?, ?>) o;
+                this.writeLength(map.size());
+                for (final Map.Entry<?, ?> entry : map.entrySet()) {
+                    this.writeObject(entry.getKey());
+                    this.writeObject(entry.getValue());
+                }
+            } else {
+                final Collection<?> collection = (Collection<?>) o;
+                this.writeLength(collection.size());
+                for (final Object element : collection)
+                    this.writeObject(element);
+            }
+        } else if (o instanceof Serializable && !this.rawSerializable) {
+            // the original layout, which nests the payload as a byte[] value
+            final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+            try {
+                final ObjectOutputStream objectOutputStream = new ObjectOutputStream(byteArrayOutputStream);
+                objectOutputStream.writeObject(o);
+                objectOutputStream.close();
+            } catch (final Exception e) {
+                throw new SerializationException(e);
+            }
+            this.writeObject(byteArrayOutputStream.toByteArray());
+        } else if (o instanceof Serializable) {
+            // the payload is streamed into the buffer, and its fixed-size length is patched afterwards
+            final int slot = this.reserveLength();
+            try {
+                final ObjectOutputStream objectOutputStream = new ObjectOutputStream(this.outputStream);
+                objectOutputStream.writeObject(o);
+                objectOutputStream.close();
+            } catch (final SerializationException e) {
+                throw e;
+            } catch (final Exception e) {
+                throw new SerializationException(e);
+            } finally {
+                this.patchLength(slot);
+            }
+        } else throw new NotFocessSerializableException(o.getClass().getName());
+    }
+
+    /**
+     * Check whether the objects of the class are tracked when the references are enabled, which must match {@code SimpleFocessReader.isTracked}
+     * @param cls the class
+     * @return true if the objects of the class are tracked
+     */
+    private static boolean isTracked(final Class<?> cls) {
+        return cls != Byte.class && cls != Short.class && cls != Integer.class && cls != Long.class && cls != Float.class && cls != Double.class
+                && cls != Boolean.class && cls != Character.class && cls != String.class
+                && !cls.isEnum() && (cls.getSuperclass() == null || !cls.getSuperclass().isEnum());
+    }
+
+    /**
+     * Check whether the object is a JDK collection written with its entries instead of Java serialization.
+     * Only the exact classes are supported, and sorted collections only with the natural ordering, so that they are restored exactly.
+     * @param o the object
+     * @return true if the object is written as a native collection
+     */
+    private static boolean isCollection(final Object o) {
+        final Class<?> cls = o.getClass();
+        if (cls == ArrayList.class || cls == LinkedList.class || cls == HashSet.class || cls == LinkedHashSet.class || cls == HashMap.class || cls == LinkedHashMap.class)
+            return true;
+        if (cls == TreeSet.class)
+            return ((TreeSet<?>) o).comparator() == null;
+        if (cls == TreeMap.class)
+            return ((TreeMap<?, ?>) o).comparator() == null;
+        return false;
+    }
+
+    private static byte primitiveArrayCode(final Class<?> componentType) {
+        if (componentType == byte.class)
+            return C_BYTES;
+        else if (componentType == short.class)
+            return C_SHORTS;
+        else if (componentType == int.class)
+            return C_INTS;
+        else if (componentType == long.class)
+            return C_LONGS;
+        else if (componentType == float.class)
+            return C_FLOATS;
+        else if (componentType == double.class)
+            return C_DOUBLES;
+        else if (componentType == boolean.class)
+            return C_BOOLEANS;
+        else return C_CHARS;
+    }
+
+    /**
+     * Write the length of the primitive array followed by its packed elements
+     * @param o the primitive array
+     */
+    private void writePrimitiveArray(final Object o) {
+        if (o instanceof byte[]) {
+            final byte[] v = (byte[]) o;
+            this.writeLength(v.length);
+            this.writeBytes(v, 0, v.length);
+        } else if (o instanceof short[]) {
+            final short[] v = (short[]) o;
+            this.writeLength(v.length);
+            if (this.compact)
+                for (final short e : v)
+                    this.writeShort(e);
+            else for (int i = 0; i < v.length; ) {
+                final ShortBuffer view = this.writeView(v.length - i, 2).asShortBuffer();
+                final int count = view.remaining();
+                view.put(v, i, count);
+                i += count;
+            }
+        } else if (o instanceof int[]) {
+            final int[] v = (int[]) o;
+            this.writeLength(v.length);
+            if (this.compact)
+                for (final int e : v)
+                    this.writeInt(e);
+            else for (int i = 0; i < v.length; ) {
+                final IntBuffer view = this.writeView(v.length - i, 4).asIntBuffer();
+                final int count = view.remaining();
+                view.put(v, i, count);
+                i += count;
+            }
+        } else if (o instanceof long[]) {
+            final long[] v = (long[]) o;
+            this.writeLength(v.length);
+            if (this.compact)
+                for (final long e : v)
+                    this.writeLong(e);
+            else for (int i = 0; i < v.length; ) {
+                final LongBuffer view = this.writeView(v.length - i, 8).asLongBuffer();
+                final int count = view.remaining();
+                view.put(v, i, count);
+                i += count;
+            }
+        } else if (o instanceof float[]) {
+            final float[] v = (float[]) o;
+            this.writeLength(v.length);
+            for (int i = 0; i < v.length; ) {
+                final FloatBuffer view = this.writeView(v.length - i, 4).asFloatBuffer();
+                final int count = view.remaining();
+                view.put(v, i, count);
+                i += count;
+            }
+        } else if (o instanceof double[]) {
+            final double[] v = (double[]) o;
+            this.writeLength(v.length);
+            for (int i = 0; i < v.length; ) {
+                final DoubleBuffer view = this.writeView(v.length - i, 8).asDoubleBuffer();
+                final int count = view.remaining();
+                view.put(v, i, count);
+                i += count;
+            }
+        } else if (o instanceof char[]) {
+            final char[] v = (char[]) o;
+            this.writeLength(v.length);
+            for (int i = 0; i < v.length; ) {
+                final CharBuffer view = this.writeView(v.length - i, 2).asCharBuffer();
+                final int count = view.remaining();
+                view.put(v, i, count);
+                i += count;
+            }
+        } else {
+            // eight booleans are packed into one byte
+            final boolean[] v = (boolean[]) o;
+            this.writeLength(v.length);
+            for (int i = 0; i < v.length; i += 8) {
+                int b = 0;
+                for (int j = 0; j < 8 && i + j < v.length; j++)
+                    if (v[i + j])
+                        b |= 1 << j;
+                this.writeByte((byte) b);
+            }
+        }
+    }
+
+    private void writeField(final String name, final Object o) {
+        this.writeByte(C_FIELD);
+        this.writeSymbol(name);
+        this.writeObject(o);
+    }
+
+    /**
+     * Write a name, or a back-reference to it if the string table is enabled and it has been written in this frame
+     * @param name the name
+     */
+    private void writeSymbol(final String name) {
+        if (!this.stringTable) {
+            this.writeString(name);
+            return;
+        }
+        final Integer id = this.strings.get(name);
+        if (id != null)
+            this.writeLength(id);
+        else {
+            this.writeLength(0);
+            this.writeString(name);
+            this.strings.put(name, this.strings.size() + 1);
+        }
+    }
+
+    public void write(final Object o) {
+        this.writeByte(C_START);
+        this.classes.clear();
+        this.strings.clear();
+        this.objects.clear();
+        if (this.features != 0) {
+            this.writeByte(C_HEADER);
+            this.writeByte((byte) this.features);
+        }
+        this.writeObject(o);
+        this.writeByte(C_END);
+        // do not keep the written objects alive until the next frame
+        this.objects.clear();
+    }
+
+    /**
+     * Write the objects as a batch, which is read by {@link SimpleFocessReader#readAll()}
+     * @param objects the objects
+     *
+     * @throws NotFocessSerializableException if an object is not FocessSerializable
+     */
+    public void writeAll(final List<?> objects) {
+        this.writeAll(objects, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Write the objects as a batch, which is read by {@link SimpleFocessReader#readAll()}.
+     * <p>
+     * The objects are split into chunks, and every chunk is encoded as consecutive frames by an independent writer in the pool.
+     * The batch is the {@code C_BATCH} code, the number of chunks, the number of objects and bytes of every chunk, and then the chunks.
+     * @param objects the objects
+     * @param pool the pool encoding the chunks
+     *
+     * @throws NotFocessSerializableException if an object is not FocessSerializable
+     */
+    public void writeAll(final List<?> objects, final ForkJoinPool pool) {
+        final List<?> list = objects instanceof RandomAccess ? objects : new ArrayList<>(objects);
+        final int chunkSize = Math.max(MIN_CHUNK_SIZE, (int) ((list.size() + (long) pool.getParallelism() * CHUNKS_PER_THREAD - 1) / ((long) pool.getParallelism() * CHUNKS_PER_THREAD)));
+        final int chunks = (list.size() + chunkSize - 1) / chunkSize;
+        final List<ForkJoinTask<SimpleFocessWriter>> tasks = new ArrayList<>(chunks);
+        for (int i = 0; i < chunks; i++) {
+            final List<?> chunk = list.subList(i * chunkSize, Math.min(list.size(), (i + 1) * chunkSize));
+            final Callable<SimpleFocessWriter> task = () -> {
+                final SimpleFocessWriter writer = new SimpleFocessWriter(this.writerMap);
+                writer.features = this.features;
+                writer.updateFeatures();
+                for (final Object o : chunk)
+                    writer.write(o);
+                return writer;
+            };
+            // a single chunk is not worth a task
+            tasks.add(chunks == 1 ? ForkJoinTask.adapt(task) : pool.submit(task));
+        }
+        final List<SimpleFocessWriter> writers = new ArrayList<>(chunks);
+        for (final ForkJoinTask<SimpleFocessWriter> task : tasks)
+            writers.add(chunks == 1 ? task.invoke() : task.join());
+        this.writeByte(C_BATCH);
+        this.writeFixedInt(chunks);
+        for (int i = 0; i < chunks; i++) {
+            this.writeFixedInt(Math.min(list.size(), (i + 1) * chunkSize) - i * chunkSize);
+            this.writeFixedInt(writers.get(i).size());
+        }
+        for (final SimpleFocessWriter writer : writers)
+            this.writeBytes(writer.buffer, 0, writer.size());
+    }
+
+    /**
+     * Get the exact number of bytes {@link #write(Object)} would write for the object, without writing anything to this writer.
+     * <p>
+     * The object is walked with the same writer map and features as this writer, but the bytes are only counted, so the result can be used
+     * to allocate an exact buffer or to enforce a size limit before encoding.
+     * @param o the object
+     * @return the number of bytes of the frame of the object
+     *
+     * @throws NotFocessSerializableException if the object is not FocessSerializable
+     */
+    public long sizeOf(final Object o) {
+        if (this.sizeCounter == null)
+            this.sizeCounter = new SizeCounter(this.writerMap);
+        return this.sizeCounter.count(this.features, o);
+    }
+
+    private void writeByte(final Byte o) {
+        this.writeByte(o.byteValue());
+    }
+
+    /**
+     * Get the written bytes
+     * @return a copy of the written bytes
+     */
+    public byte[] toByteArray() {
+        return Arrays.copyOf(this.buffer, this.position);
+    }
+
+    /**
+     * Write the written bytes to the given output stream without copying them
+     * @param outputStream the given output stream
+     * @throws IOException if an I/O error occurs
+     */
+    public void writeTo(final OutputStream outputStream) throws IOException {
+        outputStream.write(this.buffer, 0, this.position);
+    }
+
+    /**
+     * Get the number of written bytes
+     * @return the number of written bytes
+     */
+    public int size() {
+        return this.position;
+    }
+
+    /**
+     * Discard the written bytes, so that this writer can be reused without allocating a new buffer.
+     * The enabled features and the writer map are kept.
+     */
+    public void reset() {
+        this.position = 0;
+        this.openSlots = 0;
+        this.classes.clear();
+        this.strings.clear();
+        this.objects.clear();
+    }
+
+    /**
+     * A writer which discards the written bytes and only counts them.
+     * The length slots are counted but never patched, so the buffer is recycled whenever it is full.
+     */
+    private static final class SizeCounter extends SimpleFocessWriter {
+
+        private long count;
+
+        private SizeCounter(final Map<Class<?>, Writer<?>> writerMap) {
+            // a primitive array view needs up to VIEW_SIZE bytes at once
+            super(VIEW_SIZE, writerMap);
+        }
+
+        @Override
+        protected void ensureCapacity(final int n) {
+            if (this.buffer.length - this.position >= n)
+                return;
+            this.count += this.position;
+            this.position = 0;
+            if (this.buffer.length < n)
+                super.ensureCapacity(n);
+        }
+
+        @Override
+        protected void writeBytes(final byte[] bytes, final int offset, final int length) {
+            this.count += length;
+        }
+
+        @Override
+        protected int reserveLength() {
+            this.ensureCapacity(4);
+            this.position += 4;
+            return -1;
+        }
+
+        @Override
+        protected void patchLength(final int slot) {}
+
+        private long count(final int features, final Object o) {
+            this.features = features;
+            super.updateFeatures();
+            try {
+                this.write(o);
+                return this.count + this.position;
+            } finally {
+                this.reset();
+            }
+        }
+
+        @Override
+        public void reset() {
+            super.reset();
+            this.count = 0;
+            // a large string may have grown the buffer
+            if (this.buffer.length > VIEW_SIZE)
+                this.buffer = new byte[VIEW_SIZE];
+        }
+    }
+
+    public interface Writer<T> {
+        void write(T t, FocessWriter writer) throws NotFocessSerializableException;
+    }
+}
@@ -0,0 +1,217 @@
+package top.focess.util.serialize;
+
+import com.google.common.collect.Maps;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SelectableChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * This class is used to deserialize FocessSerializable-Object directly from an input stream or a channel.
+ * <p>
+ * The bytes are pulled through a bounded buffer which is refilled on demand, so only a small window of the input is kept in memory.
+ * @deprecated FocessUtil is no longer maintained. Do not use.
+ */
+@Deprecated(forRemoval = true, since = "1.1.25")
+public class StreamingFocessReader extends SimpleFocessReader implements Closeable {
+
+    private static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    private final InputStream inputStream;
+
+    private final ReadableByteChannel channel;
+
+    private boolean closeOnEnd;
+
+    private boolean end;
+
+    public StreamingFocessReader(final InputStream inputStream) {
+        this(inputStream, Maps.newHashMap());
+    }
+
+    public StreamingFocessReader(final InputStream inputStream, final Map<Class<?>, Reader<?>> readerMap) {
+        this(inputStream, readerMap, DEFAULT_BUFFER_SIZE);
+    }
+
+    public StreamingFocessReader(final InputStream inputStream, final Map<Class<?>, Reader<?>> readerMap, final int bufferSize) {
+        super(new byte[checkBufferSize(bufferSize)], readerMap);
+        this.limit = 0;
+        this.inputStream = inputStream;
+        this.channel = null;
+    }
+
+    public StreamingFocessReader(final ReadableByteChannel channel) {
+        this(channel, Maps.newHashMap());
+    }
+
+    public StreamingFocessReader(final ReadableByteChannel channel, final Map<Class<?>, Reader<?>> readerMap) {
+        this(channel, readerMap, DEFAULT_BUFFER_SIZE);
+    }
+
+    public StreamingFocessReader(final ReadableByteChannel channel, final Map<Class<?>, Reader<?>> readerMap, final int bufferSize) {
+        super(new byte[checkBufferSize(bufferSize)], readerMap);
+        this.limit = 0;
+        this.inputStream = null;
+        this.channel = channel;
+    }
+
+    private static int checkBufferSize(final int bufferSize) {
+        // the buffer must at least hold the largest primitive
+        if (bufferSize < 8)
+            throw new IllegalArgumentException("Buffer size must be at least 8");
+        return bufferSize;
+    }
+
+    /**
+     * Close the source once its end is reached
+     */
+    void closeOnEnd() {
+        this.closeOnEnd = true;
+    }
+
+    @Override
+    protected void ensureReadable(final int n) {
+        if (this.limit - this.pointer >= n)
+            return;
+        if (this.pointer > 0) {
+            System.arraycopy(this.bytes, this.pointer, this.bytes, 0, this.limit - this.pointer);
+            this.limit -= this.pointer;
+            this.pointer = 0;
+        }
+        while (this.limit < n) {
+            final int read = this.fill(this.bytes, this.limit, this.bytes.length - this.limit);
+            if (read == -1)
+                throw new SerializationParseException("Read over");
+            this.limit += read;
+        }
+    }
+
+    @Override
+    protected boolean hasRemaining() {
+        if (this.pointer < this.limit)
+            return true;
+        this.pointer = this.limit = 0;
+        final int read = this.fill(this.bytes, 0, this.bytes.length);
+        if (read == -1)
+            return false;
+        this.limit = read;
+        return true;
+    }
+
+    @Override
+    protected void readBytes(final byte[] bytes, int offset, int length) {
+        final int buffered = Math.min(length, this.limit - this.pointer);
+        System.arraycopy(this.bytes, this.pointer, bytes, offset, buffered);
+        this.pointer += buffered;
+        offset += buffered;
+        length -= buffered;
+        // read the rest directly into the target, it is no use to pass it through the buffer
+        while (length > 0) {
+            final int read = this.fill(bytes, offset, length);
+            if (read == -1)
+                throw new SerializationParseException("Read over");
+            offset += read;
+            length -= read;
+        }
+    }
+
+    /**
+     * The buffer is reused, so the bytes are always copied
+     */
+    @Override
+    protected ByteBuffer readSlice(final int length) {
+        final byte[] bytes = new byte[length];
+        this.readBytes(bytes, 0, length);
+        return ByteBuffer.wrap(bytes);
+    }
+
+    @Override
+    public String readString() {
+        final int length = this.readLength();
+        if (length <= this.bytes.length) {
+            this.ensureReadable(length);
+            final String v = new String(this.bytes, this.pointer, length, StandardCharsets.UTF_8);
+            this.pointer += length;
+            return v;
+        }
+        // a string larger than the buffer is read through a temporary array
+        final byte[] bytes = new byte[length];
+        this.readBytes(bytes, 0, length);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private int fill(final byte[] bytes, final int offset, final int length) {
+        if (this.end)
+            return -1;
+        try {
+            final int read = this.inputStream != null ? this.readStream(bytes, offset, length) : this.readChannel(bytes, offset, length);
+            if (read == -1) {
+                this.end = true;
+                if (this.closeOnEnd)
+                    this.close();
+            }
+            return read;
+        } catch (final IOException e) {
+            throw new SerializationParseException(e);
+        }
+    }
+
+    private int readStream(final byte[] bytes, final int offset, final int length) throws IOException {
+        final int read = this.inputStream.read(bytes, offset, length);
+        if (read != 0 || length == 0)
+            return read;
+        // an input stream should block until a byte is available, so fall back to the single byte read which must block
+        final int b = this.inputStream.read();
+        if (b == -1)
+            return -1;
+        bytes[offset] = (byte) b;
+        return 1;
+    }
+
+    private int readChannel(final byte[] bytes, final int offset, final int length) throws IOException {
+        final int read = this.channel.read(ByteBuffer.wrap(bytes, offset, length));
+        if (read != 0 || length == 0)
+            return read;
+        // waiting for a channel which reads nothing would spin
+        if (this.channel instanceof SelectableChannel && !((SelectableChannel) this.channel).isBlocking())
+            throw new SerializationParseException("Channel is not blocking");
+        throw new SerializationParseException(new IOException("Channel read no bytes"));
+    }
+
+    /**
+     * The bytes are read from the stream
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public SimpleFocessReader wrap(final byte[] bytes, final int offset, final int length) {
+        throw new UnsupportedOperationException("StreamingFocessReader can not read from a byte array");
+    }
+
+    @Override
+    protected boolean isForkable() {
+        return false;
+    }
+
+    /**
+     * The bytes of the stream are only read once
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    protected SimpleFocessReader fork() {
+        throw new UnsupportedOperationException("StreamingFocessReader can not be forked");
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (this.inputStream != null)
+            this.inputStream.close();
+        else this.channel.close();
+    }
+}
@@ -0,0 +1,182 @@
+package top.focess.util.serialize;
+
+import com.google.common.collect.Maps;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.Map;
+
+/**
+ * This class is used to serialize FocessSerializable-Object directly to an output stream or a channel.
+ * <p>
+ * The written bytes are kept in a fixed-size buffer which is flushed whenever it is full, so the memory used does not depend on the size of the written objects.
+ * @deprecated FocessUtil is no longer maintained. Do not use.
+ */
+@Deprecated(forRemoval = true, since = "1.1.25")
+public class StreamingFocessWriter extends SimpleFocessWriter implements Flushable, Closeable {
+
+    private static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    private final OutputStream outputStream;
+
+    private final WritableByteChannel channel;
+
+    private final int bufferSize;
+
+    private long flushed;
+
+    public StreamingFocessWriter(final OutputStream outputStream) {
+        this(outputStream, Maps.newHashMap());
+    }
+
+    public StreamingFocessWriter(final OutputStream outputStream, final Map<Class<?>, Writer<?>> writerMap) {
+        this(outputStream, writerMap, DEFAULT_BUFFER_SIZE);
+    }
+
+    public StreamingFocessWriter(final OutputStream outputStream, final Map<Class<?>, Writer<?>> writerMap, final int bufferSize) {
+        super(bufferSize, writerMap);
+        this.outputStream = outputStream;
+        this.channel = null;
+        this.bufferSize = bufferSize;
+    }
+
+    public StreamingFocessWriter(final WritableByteChannel channel) {
+        this(channel, Maps.newHashMap());
+    }
+
+    public StreamingFocessWriter(final WritableByteChannel channel, final Map<Class<?>, Writer<?>> writerMap) {
+        this(channel, writerMap, DEFAULT_BUFFER_SIZE);
+    }
+
+    public StreamingFocessWriter(final WritableByteChannel channel, final Map<Class<?>, Writer<?>> writerMap, final int bufferSize) {
+        super(bufferSize, writerMap);
+        this.outputStream = null;
+        this.channel = channel;
+        this.bufferSize = bufferSize;
+    }
+
+    @Override
+    protected void ensureCapacity(final int n) {
+        if (this.buffer.length - this.position >= n)
+            return;
+        // an open length slot is patched later, so it must stay in the buffer
+        if (this.openSlots > 0) {
+            super.ensureCapacity(n);
+            return;
+        }
+        this.flushBuffer();
+        if (this.buffer.length < n)
+            super.ensureCapacity(n);
+    }
+
+    @Override
+    protected void writeBytes(final byte[] bytes, final int offset, final int length) {
+        if (length <= this.buffer.length - this.position || this.openSlots > 0) {
+            super.writeBytes(bytes, offset, length);
+            return;
+        }
+        this.flushBuffer();
+        if (length < this.buffer.length)
+            super.writeBytes(bytes, offset, length);
+        else this.writeToTarget(bytes, offset, length);
+    }
+
+    private void flushBuffer() {
+        if (this.position == 0)
+            return;
+        this.writeToTarget(this.buffer, 0, this.position);
+        this.position = 0;
+        // a single oversized value may have grown the buffer, shrink it back once it is written out
+        if (this.buffer.length > this.bufferSize)
+            this.buffer = new byte[this.bufferSize];
+    }
+
+    private void writeToTarget(final byte[] bytes, final int offset, final int length) {
+        try {
+            if (this.outputStream != null)
+                this.outputStream.write(bytes, offset, length);
+            else {
+                final ByteBuffer byteBuffer = ByteBuffer.wrap(bytes, offset, length);
+                while (byteBuffer.hasRemaining())
+                    this.channel.write(byteBuffer);
+            }
+        } catch (final IOException e) {
+            throw new SerializationException(e);
+        }
+        this.flushed += length;
+    }
+
+    /**
+     * Get the number of bytes written to this writer, including the flushed ones
+     * @return the number of bytes written to this writer
+     */
+    public long getWrittenBytes() {
+        return this.flushed + this.position;
+    }
+
+    /**
+     * Flushed bytes are no longer kept by this writer
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public byte[] toByteArray() {
+        throw new UnsupportedOperationException("StreamingFocessWriter does not keep the written bytes");
+    }
+
+    /**
+     * Flushed bytes are no longer kept by this writer
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void writeTo(final OutputStream outputStream) {
+        throw new UnsupportedOperationException("StreamingFocessWriter does not keep the written bytes");
+    }
+
+    /**
+     * Flushed bytes can not be discarded
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void reset() {
+        throw new UnsupportedOperationException("StreamingFocessWriter can not discard the written bytes");
+    }
+
+    /**
+     * Write all the buffered bytes to the target and flush it
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public void flush() throws IOException {
+        try {
+            this.flushBuffer();
+        } catch (final SerializationException e) {
+            if (e.getCause() instanceof IOException)
+                throw (IOException) e.getCause();
+            throw e;
+        }
+        if (this.outputStream != null)
+            this.outputStream.flush();
+    }
+
+    /**
+     * Flush this writer and close the target
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            this.flush();
+        } finally {
+            if (this.outputStream != null)
+                this.outputStream.close();
+            else this.channel.close();
+        }
+    }
+}
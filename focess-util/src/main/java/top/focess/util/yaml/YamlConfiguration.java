@@ -9,6 +9,7 @@ import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.yaml.snakeyaml.Yaml;
 import top.focess.util.SectionMap;
+import top.focess.util.serialize.DeserializerRegistry;
 import top.focess.util.serialize.FocessSerializable;
 import top.focess.util.serialize.NotFocessSerializableException;
 import top.focess.util.serialize.SerializationParseException;
@@ -17,7 +18,6 @@ import top.focess.util.serialize.SimpleFocessReader;
 import java.io.*;
 import java.lang.reflect.Array;
 import java.lang.reflect.Field;
-import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
@@ -315,8 +315,7 @@ public class YamlConfiguration implements SectionMap {
                     if (v instanceof Map && FocessSerializable.class.isAssignableFrom(cls)) {
                         final Map<String, Object> data = (Map<String, Object>) v;
                         if (Boolean.parseBoolean(String.valueOf(map.get("serialize")))) {
-                            final Method method = cls.getMethod("deserialize", Map.class);
-                            return method.invoke(null, read(data));
+                            return DeserializerRegistry.deserialize(cls, (Map<String, Object>) read(data));
                         }
                         final Object o = PROVIDER.newInstance(cls);
                         for (final String key : data.keySet()) {
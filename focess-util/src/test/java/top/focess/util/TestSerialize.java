@@ -0,0 +1,912 @@
+package top.focess.util;
+
+import com.google.common.base.Strings;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.google.common.io.ByteStreams;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import top.focess.util.serialize.BlockCompressedInputStream;
+import top.focess.util.serialize.BlockCompressedOutputStream;
+import top.focess.util.serialize.ByteBufferFocessReader;
+import top.focess.util.serialize.CachingClassFinder;
+import top.focess.util.serialize.ClassRegistry;
+import top.focess.util.serialize.DeflateBlockCodec;
+import top.focess.util.serialize.DeserializerRegistry;
+import top.focess.util.serialize.DirectBufferPool;
+import top.focess.util.serialize.DirectFocessWriter;
+import top.focess.util.serialize.FocessReader;
+import top.focess.util.serialize.FocessRecordLog;
+import top.focess.util.serialize.FocessSerializable;
+import top.focess.util.serialize.FocessWriter;
+import top.focess.util.serialize.GenerateSerializer;
+import top.focess.util.serialize.GeneratedSerializer;
+import top.focess.util.serialize.MappedFocessReader;
+import top.focess.util.serialize.NotFocessSerializableException;
+import top.focess.util.serialize.SerializationFeature;
+import top.focess.util.serialize.SerializationParseException;
+import top.focess.util.serialize.SerializationPool;
+import top.focess.util.serialize.SimpleFocessReader;
+import top.focess.util.serialize.SimpleFocessWriter;
+import top.focess.util.serialize.StreamingFocessReader;
+import top.focess.util.serialize.StreamingFocessWriter;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.nio.Buffer;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.Pipe;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+public class TestSerialize {
+
+    public static class Point implements FocessSerializable {
+
+        private final int x;
+
+        private final long y;
+
+        private transient String label;
+
+        private Object extra;
+
+        public Point(final int x, final long y, final Object extra) {
+            this.x = x;
+            this.y = y;
+            this.extra = extra;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (!(o instanceof Point))
+                return false;
+            final Point point = (Point) o;
+            return x == point.x && y == point.y && Objects.deepEquals(extra, point.extra);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(x, y);
+        }
+    }
+
+    public static class Cached implements FocessSerializable {
+
+        private int value;
+
+        private transient List<Object> cache = new ArrayList<>();
+    }
+
+    @GenerateSerializer
+    public static class Generated implements FocessSerializable {
+
+        int id;
+
+        long stamp;
+
+        boolean flag;
+
+        char grade;
+
+        String name;
+
+        transient String label;
+
+        Point point;
+
+        List<Object> tags;
+
+        Generated() {}
+
+        Generated(final int id, final String name, final Point point) {
+            this.id = id;
+            this.stamp = -id * 1000L;
+            this.flag = id % 2 == 0;
+            this.grade = (char) ('A' + id % 5);
+            this.name = name;
+            this.label = "label";
+            this.point = point;
+            this.tags = Lists.newArrayList(point, name, id);
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (!(o instanceof Generated))
+                return false;
+            final Generated generated = (Generated) o;
+            return id == generated.id && stamp == generated.stamp && flag == generated.flag && grade == generated.grade
+                    && Objects.equals(name, generated.name) && Objects.equals(point, generated.point) && Objects.equals(tags, generated.tags);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(id, name);
+        }
+    }
+
+    private static Object roundTrip(final Object o) {
+        final SimpleFocessWriter writer = new SimpleFocessWriter(Collections.emptyMap());
+        writer.write(o);
+        final SimpleFocessReader reader = new SimpleFocessReader(writer.toByteArray(), Collections.emptyMap());
+        return reader.read();
+    }
+
+    @Test
+    public void testPrimitives() {
+        Assertions.assertEquals((byte) -3, roundTrip((byte) -3));
+        Assertions.assertEquals((short) -12345, roundTrip((short) -12345));
+        Assertions.assertEquals(Integer.MIN_VALUE, roundTrip(Integer.MIN_VALUE));
+        Assertions.assertEquals(Long.MAX_VALUE, roundTrip(Long.MAX_VALUE));
+        Assertions.assertEquals(-1.5f, roundTrip(-1.5f));
+        Assertions.assertEquals(Math.PI, roundTrip(Math.PI));
+        Assertions.assertEquals(true, roundTrip(true));
+        Assertions.assertEquals('中', roundTrip('中'));
+        Assertions.assertEquals("Hello 世界!", roundTrip("Hello 世界!"));
+        Assertions.assertNull(roundTrip(null));
+    }
+
+    @Test
+    public void testObjects() {
+        final Pair<String, Integer> pair = Pair.of("key", 42);
+        Assertions.assertEquals(pair, roundTrip(pair));
+        Assertions.assertArrayEquals(new int[]{1, 2, 3}, (int[]) roundTrip(new int[]{1, 2, 3}));
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 10000; i++)
+            builder.append(i);
+        Assertions.assertEquals(builder.toString(), roundTrip(builder.toString()));
+    }
+
+    @Test
+    public void testStream() {
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        FocessWriter.newFocessWriter(outputStream).write(Pair.of(1L, "value"));
+        final FocessReader reader = FocessReader.newFocessReader(new ByteArrayInputStream(outputStream.toByteArray()));
+        Assertions.assertEquals(Pair.of(1L, "value"), reader.read());
+    }
+
+    @Test
+    public void testStreamClose() throws IOException {
+        final char[] large = new char[20000];
+        Arrays.fill(large, 'x');
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        final SimpleFocessWriter frameWriter = new SimpleFocessWriter(Collections.emptyMap());
+        frameWriter.write(Pair.of(1L, new String(large)));
+        frameWriter.write(new long[5000]);
+        frameWriter.writeTo(outputStream);
+        final AtomicInteger closed = new AtomicInteger();
+        final ByteArrayInputStream inputStream = new ByteArrayInputStream(outputStream.toByteArray()) {
+            @Override
+            public void close() {
+                closed.incrementAndGet();
+            }
+        };
+        final StreamingFocessReader reader = FocessReader.newFocessReader(inputStream);
+        Assertions.assertEquals(Pair.of(1L, new String(large)), reader.read());
+        Assertions.assertEquals(0, closed.get());
+        Assertions.assertArrayEquals(new long[5000], (long[]) reader.read());
+        // the stream is closed once its end is reached
+        Assertions.assertEquals(0, reader.frames().count());
+        Assertions.assertEquals(1, closed.get());
+        try (final StreamingFocessReader closingReader = FocessReader.newFocessReader(new ByteArrayInputStream(outputStream.toByteArray()) {
+            @Override
+            public void close() {
+                closed.incrementAndGet();
+            }
+        })) {
+            Assertions.assertEquals(Pair.of(1L, new String(large)), closingReader.read());
+        }
+        Assertions.assertEquals(2, closed.get());
+        final AtomicInteger writerClosed = new AtomicInteger();
+        final FocessWriter writer = FocessWriter.newFocessWriter(new ByteArrayOutputStream() {
+            @Override
+            public void close() {
+                writerClosed.incrementAndGet();
+            }
+        });
+        Assertions.assertThrows(NotFocessSerializableException.class, () -> writer.write(new Point(1, 2, Thread.currentThread())));
+        Assertions.assertEquals(1, writerClosed.get());
+    }
+
+    @Test
+    public void testStreamingWriter() throws IOException {
+        final String[] values = new String[1000];
+        for (int i = 0; i < values.length; i++)
+            values[i] = "value-" + i;
+        final SimpleFocessWriter writer = new SimpleFocessWriter(Collections.emptyMap());
+        writer.write(values);
+        writer.write(Pair.of("key", new long[]{1L, 2L}));
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (final StreamingFocessWriter streamingWriter = new StreamingFocessWriter(Channels.newChannel(outputStream), Collections.emptyMap(), 64)) {
+            streamingWriter.write(values);
+            streamingWriter.write(Pair.of("key", new long[]{1L, 2L}));
+            Assertions.assertEquals(writer.size(), streamingWriter.getWrittenBytes());
+        }
+        Assertions.assertArrayEquals(writer.toByteArray(), outputStream.toByteArray());
+    }
+
+    @Test
+    public void testStreamingReader() throws IOException {
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 100; i++)
+            builder.append("中文").append(i);
+        final SimpleFocessWriter writer = new SimpleFocessWriter(Collections.emptyMap());
+        writer.write(builder.toString());
+        writer.write(Pair.of(1, 2.0));
+        writer.write(new short[]{1, 2, 3});
+        try (final StreamingFocessReader reader = new StreamingFocessReader(new ByteArrayInputStream(writer.toByteArray()), Collections.emptyMap(), 16)) {
+            Assertions.assertEquals(builder.toString(), reader.read());
+            Assertions.assertEquals(Pair.of(1, 2.0), reader.read());
+            Assertions.assertArrayEquals(new short[]{1, 2, 3}, (short[]) reader.read());
+            Assertions.assertThrows(SerializationParseException.class, reader::read);
+        }
+    }
+
+    @Test
+    public void testMappedReader(@TempDir final Path directory) throws IOException {
+        final Path path = directory.resolve("snapshot.bin");
+        try (final StreamingFocessWriter writer = new StreamingFocessWriter(Files.newOutputStream(path))) {
+            writer.write("中文😀 mapped");
+            writer.write(Pair.of(Long.MIN_VALUE, new String[]{"a", "b"}));
+            writer.write(new double[]{0.5, -1, Double.MAX_VALUE});
+        }
+        final MappedFocessReader reader = new MappedFocessReader(path);
+        Assertions.assertEquals("中文😀 mapped", reader.read());
+        final Pair<?, ?> pair = (Pair<?, ?>) reader.read();
+        Assertions.assertEquals(Long.MIN_VALUE, pair.getKey());
+        Assertions.assertArrayEquals(new String[]{"a", "b"}, (String[]) pair.getValue());
+        Assertions.assertArrayEquals(new double[]{0.5, -1, Double.MAX_VALUE}, (double[]) reader.read());
+        Assertions.assertEquals(Files.size(path), reader.getPosition());
+    }
+
+    @Test
+    public void testCompact() {
+        final Object[] values = {0, -1, Integer.MAX_VALUE, Integer.MIN_VALUE, Long.MIN_VALUE, (short) -300, 'c', 1.5f, -2.5, "compact", Pair.of(1, "a"), new int[]{1, -1, 1000}};
+        final SimpleFocessWriter writer = new SimpleFocessWriter(Collections.emptyMap()).enable(SerializationFeature.COMPACT);
+        final SimpleFocessWriter plainWriter = new SimpleFocessWriter(Collections.emptyMap());
+        for (final Object value : values) {
+            writer.write(value);
+            plainWriter.write(value);
+        }
+        // every frame pays for its header, so compare the sizes of a single frame
+        final SimpleFocessWriter frameWriter = new SimpleFocessWriter(Collections.emptyMap()).enable(SerializationFeature.COMPACT);
+        final SimpleFocessWriter plainFrameWriter = new SimpleFocessWriter(Collections.emptyMap());
+        frameWriter.write(values);
+        plainFrameWriter.write(values);
+        Assertions.assertTrue(frameWriter.size() < plainFrameWriter.size());
+        final SimpleFocessReader reader = new SimpleFocessReader(writer.toByteArray(), Collections.emptyMap());
+        for (final Object value : values)
+            if (value instanceof int[])
+                Assertions.assertArrayEquals((int[]) value, (int[]) reader.read());
+            else Assertions.assertEquals(value, reader.read());
+        Assertions.assertTrue(reader.isEnabled(SerializationFeature.COMPACT));
+    }
+
+    @Test
+    public void testClassTable() {
+        final Pair<?, ?>[] pairs = new Pair[100];
+        for (int i = 0; i < pairs.length; i++)
+            pairs[i] = Pair.of(i, TimeUnit.values()[i % TimeUnit.values().length]);
+        final SimpleFocessWriter writer = new SimpleFocessWriter(Collections.emptyMap()).enable(SerializationFeature.CLASS_TABLE);
+        final SimpleFocessWriter plainWriter = new SimpleFocessWriter(Collections.emptyMap());
+        writer.write(pairs);
+        writer.write(pairs);
+        plainWriter.write(pairs);
+        plainWriter.write(pairs);
+        Assertions.assertTrue(writer.size() < plainWriter.size());
+        final SimpleFocessReader reader = new SimpleFocessReader(writer.toByteArray(), Collections.emptyMap());
+        Assertions.assertArrayEquals(pairs, (Object[]) reader.read());
+        Assertions.assertArrayEquals(pairs, (Object[]) reader.read());
+    }
+
+    @Test
+    public void testStringTable() {
+        final String[] values = new String[100];
+        for (int i = 0; i < values.length; i++)
+            values[i] = "tag-" + i % 3;
+        final SimpleFocessWriter writer = new SimpleFocessWriter(Collections.emptyMap()).enable(SerializationFeature.STRING_TABLE).enable(SerializationFeature.COMPACT);
+        writer.write(values);
+        writer.write(values);
+        final SimpleFocessReader reader = new SimpleFocessReader(writer.toByteArray(), Collections.emptyMap());
+        for (int i = 0; i < 2; i++) {
+            final String[] read = (String[]) reader.read();
+            Assertions.assertArrayEquals(values, read);
+            Assertions.assertSame(read[0], read[3]);
+        }
+    }
+
+    @Test
+    public void testConstructor() {
+        final Cached cached = new Cached();
+        cached.value = 42;
+        cached.cache.add("stale");
+        final Cached result = (Cached) roundTrip(cached);
+        Assertions.assertEquals(42, result.value);
+        Assertions.assertEquals(Collections.emptyList(), result.cache);
+        Assertions.assertEquals(new Point(1, 2, "point"), roundTrip(new Point(1, 2, "point")));
+    }
+
+    @Test
+    public void testFields() {
+        final Point point = new Point(1, -2L, new Point(3, 4L, "extra"));
+        Assertions.assertEquals(point, roundTrip(point));
+        final Point[] points = new Point[10];
+        for (int i = 0; i < points.length; i++)
+            points[i] = new Point(i, i * 2L, null);
+        Assertions.assertArrayEquals(points, (Object[]) roundTrip(points));
+    }
+
+    @Test
+    public void testDeserializerRegistry() {
+        Assertions.assertEquals(Pair.of("a", 1), roundTrip(Pair.of("a", 1)));
+        DeserializerRegistry.register(Pair.class, map -> Pair.of(map.get("value"), map.get("key")));
+        try {
+            Assertions.assertEquals(Pair.of(1, "a"), roundTrip(Pair.of("a", 1)));
+        } finally {
+            DeserializerRegistry.unregister(Pair.class);
+        }
+        Assertions.assertEquals(Pair.of("a", 1), roundTrip(Pair.of("a", 1)));
+    }
+
+    @Test
+    public void testCachingClassFinder() throws ClassNotFoundException {
+        final AtomicInteger lookups = new AtomicInteger();
+        final CachingClassFinder classFinder = new CachingClassFinder(name -> {
+            lookups.incrementAndGet();
+            return Class.forName(name);
+        });
+        Assertions.assertEquals(Pair.class, classFinder.forName(Pair.class.getName()));
+        Assertions.assertEquals(Pair.class, classFinder.forName(Pair.class.getName()));
+        Assertions.assertThrows(ClassNotFoundException.class, () -> classFinder.forName("top.focess.util.Missing"));
+        Assertions.assertThrows(ClassNotFoundException.class, () -> classFinder.forName("top.focess.util.Missing"));
+        Assertions.assertEquals(2, lookups.get());
+        Assertions.assertEquals(2, classFinder.getHitCount());
+        Assertions.assertEquals(2, classFinder.getMissCount());
+        // a failed lookup expires, so a class which becomes available later is still found
+        final Set<String> available = Sets.newHashSet();
+        final CachingClassFinder expiringClassFinder = new CachingClassFinder(name -> {
+            if (!available.contains(name))
+                throw new ClassNotFoundException(name);
+            return Class.forName(name);
+        }, 16, 0, TimeUnit.MILLISECONDS);
+        Assertions.assertThrows(ClassNotFoundException.class, () -> expiringClassFinder.forName(Pair.class.getName()));
+        available.add(Pair.class.getName());
+        Assertions.assertEquals(Pair.class, expiringClassFinder.forName(Pair.class.getName()));
+    }
+
+    @Test
+    public void testPrimitiveArrays() throws IOException {
+        final Random random = new Random(42);
+        final int[] ints = random.ints(5000).toArray();
+        final long[] longs = random.longs(5000).toArray();
+        final double[] doubles = random.doubles(5000).toArray();
+        final byte[] bytes = new byte[5000];
+        random.nextBytes(bytes);
+        final float[] floats = {1.5f, -2f, Float.NaN};
+        final short[] shorts = {Short.MIN_VALUE, 0, Short.MAX_VALUE};
+        final char[] chars = "primitive 数组".toCharArray();
+        final boolean[] booleans = {true, false, true, true, false, false, false, true, true};
+        final Object[] values = {ints, longs, doubles, bytes, floats, shorts, chars, booleans};
+        int plainSize = 0;
+        for (int i = 0; i < 3; i++) {
+            final SimpleFocessWriter writer = new SimpleFocessWriter(Collections.emptyMap());
+            if (i > 0)
+                writer.enable(SerializationFeature.PRIMITIVE_ARRAYS);
+            if (i > 1)
+                writer.enable(SerializationFeature.COMPACT);
+            for (final Object value : values)
+                writer.write(value);
+            if (i == 0)
+                plainSize = writer.size();
+            else Assertions.assertTrue(writer.size() < plainSize);
+            final SimpleFocessReader reader = new SimpleFocessReader(writer.toByteArray(), Collections.emptyMap());
+            try (final StreamingFocessReader streamingReader = new StreamingFocessReader(new ByteArrayInputStream(writer.toByteArray()), Collections.emptyMap(), 64)) {
+                for (final Object value : values) {
+                    Assertions.assertTrue(Objects.deepEquals(value, reader.read()));
+                    Assertions.assertTrue(Objects.deepEquals(value, streamingReader.read()));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testCollections() {
+        final Map<String, Object> map = Maps.newHashMap();
+        map.put("list", Lists.newArrayList(1, "a", null));
+        map.put("linked", new LinkedList<>(Arrays.asList(3L, 2L, 1L)));
+        map.put("set", Sets.newHashSet('x', 'y'));
+        map.put("sorted", Sets.newTreeSet(Arrays.asList("c", "a", "b")));
+        final Map<Integer, String> linkedMap = Maps.newLinkedHashMap();
+        for (int i = 10; i > 0; i--)
+            linkedMap.put(i, String.valueOf(i));
+        map.put("linkedMap", linkedMap);
+        map.put("sortedMap", new TreeMap<>(linkedMap));
+        map.put("linkedSet", new LinkedHashSet<>(Arrays.asList(5, 4, 3)));
+        final SimpleFocessWriter plainWriter = new SimpleFocessWriter(Collections.emptyMap());
+        plainWriter.write(map);
+        Assertions.assertEquals(map, new SimpleFocessReader(plainWriter.toByteArray(), Collections.emptyMap()).read());
+        final SimpleFocessWriter writer = new SimpleFocessWriter(Collections.emptyMap()).enable(SerializationFeature.COLLECTIONS);
+        writer.write(map);
+        Assertions.assertTrue(writer.size() < plainWriter.size());
+        final SimpleFocessReader reader = new SimpleFocessReader(writer.toByteArray(), Collections.emptyMap());
+        final Map<?, ?> result = (Map<?, ?>) reader.read();
+        Assertions.assertEquals(map, result);
+        for (final Map.Entry<String, Object> entry : map.entrySet())
+            Assertions.assertEquals(entry.getValue().getClass(), result.get(entry.getKey()).getClass());
+        Assertions.assertEquals(new ArrayList<>(linkedMap.keySet()), new ArrayList<>(((Map<?, ?>) result.get("linkedMap")).keySet()));
+        Assertions.assertEquals(Arrays.asList(5, 4, 3), new ArrayList<>((Set<?>) result.get("linkedSet")));
+
+        // a custom comparator can not be written natively, so it falls back to Java serialization
+        final TreeSet<String> reversed = new TreeSet<>(Collections.reverseOrder());
+        reversed.addAll(Arrays.asList("a", "b", "c"));
+        final SimpleFocessWriter reversedWriter = new SimpleFocessWriter(Collections.emptyMap()).enable(SerializationFeature.COLLECTIONS);
+        reversedWriter.write(reversed);
+        final TreeSet<?> reversedResult = (TreeSet<?>) new SimpleFocessReader(reversedWriter.toByteArray(), Collections.emptyMap()).read();
+        Assertions.assertEquals(Arrays.asList("c", "b", "a"), new ArrayList<>(reversedResult));
+    }
+
+    @Test
+    public void testReferences() {
+        final Point shared = new Point(1, 2, new int[]{3});
+        final Point cyclic = new Point(4, 5, null);
+        cyclic.extra = Lists.newArrayList(cyclic, shared);
+        final Object[] values = {shared, shared, cyclic, "a", "a"};
+        final SimpleFocessWriter writer = new SimpleFocessWriter(Collections.emptyMap()).enable(SerializationFeature.REFERENCES).enable(SerializationFeature.COLLECTIONS);
+        writer.write(values);
+        final Object[] result = (Object[]) new SimpleFocessReader(writer.toByteArray(), Collections.emptyMap()).read();
+        Assertions.assertEquals(shared, result[0]);
+        Assertions.assertSame(result[0], result[1]);
+        final Point point = (Point) result[2];
+        final List<?> extra = (List<?>) point.extra;
+        Assertions.assertSame(point, extra.get(0));
+        Assertions.assertSame(result[0], extra.get(1));
+        Assertions.assertEquals("a", result[4]);
+    }
+
+    @Test
+    public void testReuse() throws Exception {
+        final SimpleFocessWriter writer = new SimpleFocessWriter(Collections.emptyMap()).enable(SerializationFeature.STRING_TABLE);
+        final SimpleFocessReader reader = new SimpleFocessReader(new byte[0], Collections.emptyMap());
+        for (int i = 0; i < 3; i++) {
+            writer.reset();
+            writer.write(Lists.newArrayList("reuse", "reuse", i));
+            Assertions.assertEquals(Lists.newArrayList("reuse", "reuse", i), reader.wrap(writer.toByteArray()).read());
+        }
+
+        final SerializationPool pool = new SerializationPool(SerializationFeature.COMPACT);
+        final byte[] bytes = pool.serialize(new Point(1, 2, "pooled"));
+        Assertions.assertArrayEquals(bytes, pool.serialize(new Point(1, 2, "pooled")));
+        Assertions.assertEquals(new Point(1, 2, "pooled"), pool.deserialize(bytes));
+        final ByteArrayOutputStream pooledStream = new ByteArrayOutputStream();
+        Assertions.assertEquals(bytes.length, pool.serialize(new Point(1, 2, "pooled"), pooledStream));
+        Assertions.assertArrayEquals(bytes, pooledStream.toByteArray());
+        final ByteBuffer pooledBuffer = ByteBuffer.allocateDirect(bytes.length + 1);
+        pooledBuffer.put((byte) 0);
+        Assertions.assertEquals(bytes.length, pool.serialize(new Point(1, 2, "pooled"), pooledBuffer));
+        Assertions.assertFalse(pooledBuffer.hasRemaining());
+        ((Buffer) pooledBuffer).position(1);
+        final byte[] pooledBytes = new byte[bytes.length];
+        pooledBuffer.get(pooledBytes);
+        Assertions.assertArrayEquals(bytes, pooledBytes);
+        final ByteBuffer small = ByteBuffer.allocate(bytes.length - 1);
+        Assertions.assertThrows(BufferOverflowException.class, () -> pool.serialize(new Point(1, 2, "pooled"), small));
+        Assertions.assertEquals(0, small.position());
+        Assertions.assertArrayEquals(bytes, pool.serialize(new Point(1, 2, "pooled")));
+        final AtomicReference<Object> result = new AtomicReference<>();
+        final Thread thread = new Thread(() -> result.set(pool.deserialize(bytes)));
+        thread.start();
+        thread.join();
+        Assertions.assertEquals(new Point(1, 2, "pooled"), result.get());
+    }
+
+    @Test
+    public void testBlockCompression() throws IOException {
+        final ByteArrayOutputStream plain = new ByteArrayOutputStream();
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (final StreamingFocessWriter plainWriter = new StreamingFocessWriter(plain);
+             final StreamingFocessWriter writer = new StreamingFocessWriter(new BlockCompressedOutputStream(compressed, new DeflateBlockCodec(), 1024))) {
+            for (int i = 0; i < 500; i++) {
+                plainWriter.write(new Point(i, i * 2L, "block " + i % 7));
+                writer.write(new Point(i, i * 2L, "block " + i % 7));
+            }
+        }
+        Assertions.assertTrue(compressed.size() < plain.size() / 2);
+        final ForkJoinPool executor = new ForkJoinPool(4);
+        try (final StreamingFocessReader reader = new StreamingFocessReader(new BlockCompressedInputStream(new ByteArrayInputStream(compressed.toByteArray())));
+             final StreamingFocessReader parallelReader = new StreamingFocessReader(new BlockCompressedInputStream(new ByteArrayInputStream(compressed.toByteArray()), new DeflateBlockCodec(), executor, 4))) {
+            for (int i = 0; i < 500; i++) {
+                Assertions.assertEquals(new Point(i, i * 2L, "block " + i % 7), reader.read());
+                Assertions.assertEquals(new Point(i, i * 2L, "block " + i % 7), parallelReader.read());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        final byte[] corrupted = compressed.toByteArray();
+        corrupted[corrupted.length / 2] ^= 1;
+        final StreamingFocessReader reader = new StreamingFocessReader(new BlockCompressedInputStream(new ByteArrayInputStream(corrupted)));
+        Assertions.assertThrows(SerializationParseException.class, () -> {
+            for (int i = 0; i < 500; i++)
+                reader.read();
+        });
+    }
+
+    @Test
+    public void testRecordLog(@TempDir final Path dir) throws IOException {
+        final Path path = dir.resolve("records.log");
+        try (final FocessRecordLog log = new FocessRecordLog(path)) {
+            for (int i = 0; i < 100; i++)
+                Assertions.assertEquals(i, log.append(new Point(i, -i, "record")));
+            Assertions.assertEquals(new Point(42, -42, "record"), log.read(42));
+        }
+        final long size = Files.size(path);
+        // a torn record and a lost index entry
+        Files.write(path, new byte[]{100, 0, 0, 0, 1, 2, 3}, StandardOpenOption.APPEND);
+        final Path index = dir.resolve("records.log.idx");
+        Files.write(index, Arrays.copyOf(Files.readAllBytes(index), 99 * 8 + 3));
+        try (final FocessRecordLog log = new FocessRecordLog(path).enable(SerializationFeature.COMPACT)) {
+            Assertions.assertEquals(100, log.size());
+            Assertions.assertEquals(size, Files.size(path));
+            Assertions.assertEquals(new Point(99, -99, "record"), log.read(99));
+            Assertions.assertEquals(100, log.append("compact"));
+            Assertions.assertEquals("compact", log.read(100));
+            Assertions.assertThrows(IndexOutOfBoundsException.class, () -> log.read(101));
+        }
+        // a zero-filled index tail points at the first record, which is valid, but it does not continue the chain of records
+        Files.write(index, new byte[16], StandardOpenOption.APPEND);
+        try (final FocessRecordLog log = new FocessRecordLog(path)) {
+            Assertions.assertEquals(101, log.size());
+            Assertions.assertEquals("compact", log.read(100));
+            Assertions.assertEquals(101 * 8, Files.size(index));
+        }
+    }
+
+    @Test
+    public void testBatch(@TempDir final Path dir) throws IOException {
+        final List<Object> objects = Lists.newArrayList();
+        for (int i = 0; i < 10000; i++)
+            objects.add(i % 3 == 0 ? new Point(i, i, null) : "batch " + i);
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            final SimpleFocessWriter writer = new SimpleFocessWriter(Collections.emptyMap()).enable(SerializationFeature.COMPACT);
+            writer.writeAll(objects, pool);
+            writer.writeAll(Collections.emptyList(), pool);
+            writer.write("after");
+            final SimpleFocessReader reader = new SimpleFocessReader(writer.toByteArray(), Collections.emptyMap());
+            Assertions.assertEquals(objects, reader.readAll(pool));
+            Assertions.assertEquals(Collections.emptyList(), reader.readAll(pool));
+            Assertions.assertEquals("after", reader.read());
+            final Path path = dir.resolve("batch.bin");
+            Files.write(path, writer.toByteArray());
+            final MappedFocessReader mappedReader = new MappedFocessReader(path);
+            Assertions.assertEquals(objects, mappedReader.readAll(pool));
+            Assertions.assertEquals(Collections.emptyList(), mappedReader.readAll(pool));
+            Assertions.assertEquals("after", mappedReader.read());
+
+            final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            try (final StreamingFocessWriter streamingWriter = new StreamingFocessWriter(outputStream)) {
+                streamingWriter.writeAll(objects.subList(0, 100));
+            }
+            try (final StreamingFocessReader streamingReader = new StreamingFocessReader(new ByteArrayInputStream(outputStream.toByteArray()))) {
+                Assertions.assertEquals(objects.subList(0, 100), streamingReader.readAll());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testProjection() throws IOException {
+        final Map<String, Object> record = Maps.newLinkedHashMap();
+        record.put("body", Lists.newArrayList(new int[1000], new Point(3, 4, "body"), "body"));
+        record.put("header", new Point(1, 2, Maps.newHashMap(Collections.singletonMap("id", 42L))));
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (final StreamingFocessWriter writer = new StreamingFocessWriter(Channels.newChannel(outputStream), Collections.emptyMap(), 16)) {
+            writer.enable(SerializationFeature.LENGTH_PREFIX);
+            writer.write(record);
+            writer.write(record);
+            writer.write(record);
+            writer.enable(SerializationFeature.REFERENCES);
+            writer.write(record);
+        }
+        try (final StreamingFocessReader reader = new StreamingFocessReader(new ByteArrayInputStream(outputStream.toByteArray()), Collections.emptyMap(), 16)) {
+            Assertions.assertEquals(42L, reader.read("header", "extra", "id"));
+            Assertions.assertNull(reader.read("header", "missing"));
+            final Map<?, ?> result = (Map<?, ?>) reader.read();
+            Assertions.assertEquals(record.get("header"), result.get("header"));
+            Assertions.assertEquals(new Point(3, 4, "body"), ((List<?>) result.get("body")).get(1));
+            Assertions.assertEquals(2L, reader.read("header", "y"));
+        }
+    }
+
+    @Test
+    public void testClassRegistry() {
+        final Point point = new Point(1, 2, Lists.newArrayList(new Point(3, 4, null)));
+        final SimpleFocessWriter plainWriter = new SimpleFocessWriter(Collections.emptyMap()).enable(SerializationFeature.COLLECTIONS);
+        plainWriter.write(point);
+        ClassRegistry.register(Point.class, 7, "removed", "x", "y", "extra");
+        try {
+            final SimpleFocessWriter writer = new SimpleFocessWriter(Collections.emptyMap()).enable(SerializationFeature.COLLECTIONS);
+            writer.write(point);
+            Assertions.assertTrue(writer.size() < plainWriter.size() / 2);
+            Assertions.assertEquals(point, new SimpleFocessReader(writer.toByteArray(), Collections.emptyMap()).read());
+            Assertions.assertThrows(IllegalArgumentException.class, () -> ClassRegistry.register(Point.class, 7, "x", "y"));
+            // a reader whose schema does not know the field id 3 skips it
+            ClassRegistry.register(Point.class, 7, "removed", "x", "y", null, "extra");
+            final Point result = (Point) new SimpleFocessReader(writer.toByteArray(), Collections.emptyMap()).read();
+            Assertions.assertEquals(2, result.y);
+            Assertions.assertNull(result.extra);
+            // without explicit ids the fields are numbered in the order of their names
+            ClassRegistry.register(Point.class, 8);
+            final SimpleFocessWriter sortedWriter = new SimpleFocessWriter(Collections.emptyMap()).enable(SerializationFeature.COLLECTIONS);
+            sortedWriter.write(point);
+            ClassRegistry.register(Point.class, 8, "extra", "x", "y");
+            Assertions.assertEquals(point, new SimpleFocessReader(sortedWriter.toByteArray(), Collections.emptyMap()).read());
+            // the id of an unregistered class is free again
+            ClassRegistry.unregister(Point.class);
+            ClassRegistry.register(Cached.class, 8);
+            Assertions.assertThrows(IllegalArgumentException.class, () -> ClassRegistry.register(Point.class, 8));
+        } finally {
+            ClassRegistry.unregister(Point.class);
+            ClassRegistry.unregister(Cached.class);
+        }
+    }
+
+    @Test
+    public void testStrings() throws IOException {
+        final StringBuilder large = new StringBuilder();
+        for (int i = 0; i < 30000; i++)
+            large.append("ab中😀".charAt(i % 4));
+        final String[] values = {"", "ascii", "ü ß", "中文", "😀 emoji", "unpaired \uD800 \uDC00 surrogates\uD83D", large.toString(), large + "😀", large.toString() + large + large};
+        for (final boolean compact : new boolean[]{false, true}) {
+            final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            try (final StreamingFocessWriter writer = new StreamingFocessWriter(outputStream)) {
+                if (compact)
+                    writer.enable(SerializationFeature.COMPACT);
+                for (final String value : values)
+                    writer.write(value);
+            }
+            final SimpleFocessReader reader = new SimpleFocessReader(outputStream.toByteArray(), Collections.emptyMap());
+            try (final StreamingFocessReader streamingReader = new StreamingFocessReader(new ByteArrayInputStream(outputStream.toByteArray()), Collections.emptyMap(), 64)) {
+                for (final String value : values) {
+                    final String expected = new String(value.getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8);
+                    Assertions.assertEquals(expected, reader.read());
+                    Assertions.assertEquals(expected, streamingReader.read());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testRawBytes(@TempDir final Path dir) throws IOException {
+        final byte[] payload = new byte[4096];
+        new Random(7).nextBytes(payload);
+        final Map<Class<?>, SimpleFocessWriter.Writer<?>> writerMap = Collections.singletonMap(Blob.class, (SimpleFocessWriter.Writer<Blob>) (blob, writer) -> writer.writeObject(blob.bytes));
+        final Map<Class<?>, SimpleFocessReader.Reader<?>> readerMap = Collections.singletonMap(Blob.class, (SimpleFocessReader.Reader<Blob>) (cls, reader) -> new Blob(((SimpleFocessReader) reader).readByteBuffer()));
+        final Path path = dir.resolve("raw.bin");
+        try (final StreamingFocessWriter writer = new StreamingFocessWriter(Files.newOutputStream(path), writerMap)) {
+            writer.enable(SerializationFeature.PRIMITIVE_ARRAYS).enable(SerializationFeature.RAW_SERIALIZABLE);
+            writer.write(new Blob(ByteBuffer.wrap(payload)));
+            writer.write(new Date(42));
+        }
+        final SimpleFocessReader reader = new SimpleFocessReader(Files.readAllBytes(path), readerMap);
+        final Blob blob = (Blob) reader.read();
+        Assertions.assertTrue(blob.view.isReadOnly());
+        Assertions.assertEquals(ByteBuffer.wrap(payload), blob.view);
+        Assertions.assertEquals(new Date(42), reader.read());
+        final MappedFocessReader mappedReader = new MappedFocessReader(path, readerMap);
+        final Blob mappedBlob = (Blob) mappedReader.read();
+        Assertions.assertTrue(mappedBlob.view.isDirect());
+        Assertions.assertEquals(ByteBuffer.wrap(payload), mappedBlob.view);
+        Assertions.assertEquals(new Date(42), mappedReader.read());
+    }
+
+    @Test
+    public void testSizeOf() {
+        final char[] large = new char[100000];
+        Arrays.fill(large, '\u00e9');
+        final Map<String, Object> record = Maps.newLinkedHashMap();
+        record.put("body", Lists.newArrayList(new int[5000], new Point(3, 4, "body"), "body", new String(large), new Date(42)));
+        record.put("header", new Point(1, 2, Maps.newHashMap(Collections.singletonMap("id", 42L))));
+        final SimpleFocessWriter writer = new SimpleFocessWriter(Collections.emptyMap());
+        for (final SerializationFeature feature : SerializationFeature.values()) {
+            writer.enable(feature);
+            final long size = writer.sizeOf(record);
+            Assertions.assertEquals(0, writer.size());
+            writer.write(record);
+            Assertions.assertEquals(size, writer.size());
+            writer.reset();
+        }
+    }
+
+    @Test
+    public void testGenerated() throws ClassNotFoundException {
+        Assertions.assertTrue(GeneratedSerializer.class.isAssignableFrom(Class.forName(Generated.class.getName() + GeneratedSerializer.SUFFIX)));
+        final Generated generated = new Generated(3, "generated\u00e9", new Point(1, 2, "point"));
+        final Map<String, Object> record = Maps.newLinkedHashMap();
+        record.put("first", generated);
+        record.put("second", generated);
+        final SimpleFocessWriter plainWriter = new SimpleFocessWriter(Collections.emptyMap());
+        plainWriter.write(generated);
+        Assertions.assertFalse(new String(plainWriter.toByteArray(), StandardCharsets.ISO_8859_1).contains("stamp"));
+        Assertions.assertEquals(generated, new SimpleFocessReader(plainWriter.toByteArray(), Collections.emptyMap()).read());
+        for (final SerializationFeature feature : SerializationFeature.values()) {
+            // the record map and the tags are only written field by field with the collections enabled
+            final SimpleFocessWriter writer = new SimpleFocessWriter(Collections.emptyMap()).enable(SerializationFeature.COLLECTIONS);
+            writer.enable(feature);
+            final long size = writer.sizeOf(generated);
+            writer.write(generated);
+            writer.write(record);
+            Assertions.assertEquals(size, writer.sizeOf(generated));
+            final byte[] bytes = writer.toByteArray();
+            // the generated serializer writes the fields without their names
+            Assertions.assertFalse(new String(bytes, StandardCharsets.ISO_8859_1).contains("stamp"));
+            final SimpleFocessReader reader = new SimpleFocessReader(bytes, Collections.emptyMap());
+            final Generated result = (Generated) reader.read();
+            Assertions.assertEquals(generated, result);
+            Assertions.assertNull(result.label);
+            final Map<?, ?> map = (Map<?, ?>) reader.read();
+            Assertions.assertEquals(record, map);
+            if (feature == SerializationFeature.REFERENCES) {
+                Assertions.assertSame(result.point, result.tags.get(0));
+                Assertions.assertSame(map.get("first"), map.get("second"));
+            }
+            final SimpleFocessReader projectionReader = new SimpleFocessReader(bytes, Collections.emptyMap());
+            Assertions.assertEquals(2L, projectionReader.read("point", "y"));
+            Assertions.assertEquals("generated\u00e9", projectionReader.read("second", "name"));
+        }
+    }
+
+    @Test
+    public void testDirectBuffers() throws IOException {
+        final Map<String, Object> record = Maps.newLinkedHashMap();
+        record.put("body", Lists.newArrayList(new int[5000], new double[] {1.5, -2}, new Point(3, 4, "body\u00e9\ud83d\ude00"), new Date(42)));
+        record.put("header", new Point(1, 2, Maps.newHashMap(Collections.singletonMap("id", 42L))));
+        final DirectBufferPool pool = new DirectBufferPool();
+        for (final SerializationFeature feature : SerializationFeature.values()) {
+            final SimpleFocessWriter heapWriter = new SimpleFocessWriter(Collections.emptyMap());
+            try (final DirectFocessWriter writer = new DirectFocessWriter(pool, Collections.emptyMap(), 16)) {
+                heapWriter.enable(feature);
+                writer.enable(feature);
+                heapWriter.write(record);
+                writer.write(record);
+                Assertions.assertArrayEquals(heapWriter.toByteArray(), writer.toByteArray());
+                final ByteBuffer buffer = writer.toByteBuffer();
+                Assertions.assertTrue(buffer.isDirect());
+                final Map<?, ?> result = (Map<?, ?>) new ByteBufferFocessReader(buffer).read();
+                Assertions.assertEquals(record.get("header"), result.get("header"));
+                Assertions.assertArrayEquals(new double[] {1.5, -2}, (double[]) ((List<?>) result.get("body")).get(1));
+                Assertions.assertEquals(new Point(3, 4, "body\u00e9\ud83d\ude00"), ((List<?>) result.get("body")).get(2));
+                Assertions.assertEquals(0, buffer.position());
+                final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+                writer.writeTo(Channels.newChannel(outputStream));
+                Assertions.assertArrayEquals(heapWriter.toByteArray(), outputStream.toByteArray());
+            }
+            Assertions.assertTrue(pool.getPooledBytes() > 0);
+        }
+        final String[] strings = {Strings.repeat("\u00e9", 5000), "short", "\ud83d\ude00"};
+        final SimpleFocessWriter stringWriter = new SimpleFocessWriter(Collections.emptyMap());
+        stringWriter.write(strings);
+        final byte[] stringBytes = stringWriter.toByteArray();
+        final ByteBuffer direct = ByteBuffer.allocateDirect(stringBytes.length);
+        ((Buffer) direct.put(stringBytes)).flip();
+        Assertions.assertArrayEquals(strings, (String[]) new ByteBufferFocessReader(direct).read());
+        final ByteBuffer slab = pool.acquire(1);
+        Assertions.assertEquals(4096, slab.capacity());
+        pool.release(slab);
+    }
+
+    @Test
+    public void testFrames(@TempDir final Path dir) throws IOException {
+        final SimpleFocessWriter writer = new SimpleFocessWriter(Collections.emptyMap());
+        writer.enable(SerializationFeature.STRING_TABLE);
+        final List<Object> records = Lists.newArrayList();
+        final long[] offsets = new long[1000];
+        for (int i = 0; i < offsets.length; i++) {
+            final Point point = new Point(i, -i, i % 3 == 0 ? null : "point" + i);
+            records.add(point);
+            offsets[i] = writer.size();
+            writer.write(point);
+        }
+        final byte[] bytes = writer.toByteArray();
+        final Path path = dir.resolve("frames.bin");
+        Files.write(path, bytes);
+        final SimpleFocessReader reader = new SimpleFocessReader(bytes, Collections.emptyMap());
+        Assertions.assertEquals(records, reader.frames(offsets).parallel().collect(Collectors.toList()));
+        Assertions.assertEquals(records, reader.frames().collect(Collectors.toList()));
+        Assertions.assertEquals(records, new MappedFocessReader(path).frames(offsets).parallel().collect(Collectors.toList()));
+        Assertions.assertEquals(records, new ByteBufferFocessReader(ByteBuffer.wrap(bytes)).frames(offsets).parallel().collect(Collectors.toList()));
+        Assertions.assertEquals(records.get(42), reader.frames(new long[] {offsets[42]}).findFirst().orElse(null));
+        final byte[] padded = new byte[bytes.length + 14];
+        System.arraycopy(bytes, 0, padded, 7, bytes.length);
+        Assertions.assertEquals(records, reader.wrap(padded, 7, bytes.length).frames(offsets).parallel().collect(Collectors.toList()));
+        final ByteBuffer buffer = ByteBuffer.wrap(padded, 7, bytes.length);
+        Assertions.assertEquals(records, new ByteBufferFocessReader(buffer).frames(offsets).parallel().collect(Collectors.toList()));
+        final Pipe pipe = Pipe.open();
+        pipe.source().configureBlocking(false);
+        try (final StreamingFocessReader streamingReader = new StreamingFocessReader(pipe.source())) {
+            Assertions.assertThrows(SerializationParseException.class, streamingReader::read);
+            // a reader which can not be forked fails before the stream is used
+            Assertions.assertThrows(UnsupportedOperationException.class, () -> streamingReader.frames(offsets));
+        } finally {
+            pipe.sink().close();
+        }
+        // an input stream which reads nothing now and then is read through its blocking single byte read
+        final AtomicInteger reads = new AtomicInteger();
+        final InputStream stuttering = new ByteArrayInputStream(bytes) {
+            @Override
+            public synchronized int read(final byte[] b, final int off, final int len) {
+                return reads.incrementAndGet() % 2 == 0 ? 0 : super.read(b, off, len);
+            }
+        };
+        try (final StreamingFocessReader streamingReader = new StreamingFocessReader(stuttering, Collections.emptyMap(), 64)) {
+            Assertions.assertEquals(records, streamingReader.frames().collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    public void testBaselineFrames() throws IOException {
+        final byte[] bytes;
+        try (final InputStream inputStream = TestSerialize.class.getResourceAsStream("/baseline-frames.bin")) {
+            bytes = ByteStreams.toByteArray(inputStream);
+        }
+        final Map<String, Object> map = Maps.newHashMap();
+        map.put("a", 1);
+        map.put("b", "text");
+        final SimpleFocessReader reader = new SimpleFocessReader(bytes, Collections.emptyMap());
+        Assertions.assertEquals(map, reader.read());
+        Assertions.assertEquals(Lists.newArrayList(1, "two", 3L), reader.read());
+        Assertions.assertEquals(new BigInteger("123456789012345678901234567890"), reader.read());
+        Assertions.assertEquals(Pair.of("key", 42), reader.read());
+        Assertions.assertArrayEquals(new byte[] {1, 2, 3}, (byte[]) reader.read());
+        Assertions.assertFalse(reader.frames().findAny().isPresent());
+        // without any feature the frames are written exactly as before
+        final SimpleFocessWriter writer = new SimpleFocessWriter(Collections.emptyMap());
+        writer.write(map);
+        writer.write(Lists.newArrayList(1, "two", 3L));
+        writer.write(new BigInteger("123456789012345678901234567890"));
+        writer.write(Pair.of("key", 42));
+        writer.write(new byte[] {1, 2, 3});
+        Assertions.assertArrayEquals(bytes, writer.toByteArray());
+    }
+
+    private static class Blob {
+
+        private final byte[] bytes;
+
+        private final ByteBuffer view;
+
+        private Blob(final ByteBuffer view) {
+            this.bytes = new byte[view.remaining()];
+            view.duplicate().get(this.bytes);
+            this.view = view;
+        }
+    }
+}